@@ -4,75 +4,420 @@ import Jama.CholeskyDecomposition;
 import Jama.Matrix;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
+/**
+ * Generates sequences of random vectors and samples of them. Every value is drawn from a stream split from a
+ * single seed, so a distribution with a given seed always produces the same sequences and samples.
+ */
 public class AnalyticalDistribution {
 
-    private final Random random = new Random();
+    /**
+     * The number of vectors in a sequence sampled from each stream. Sequences are split into chunks of this
+     * size which are sampled in parallel, so it must not depend on the number of threads.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final long seed;
+    private final GaussianStream random;
+
+    /**
+     * The number of sequences started so far, which identifies each sequence drawn from the same seed.
+     */
+    private int sequences;
+
+    /**
+     * How far an entry of a covariance may be from that of {@code I - (1/d) 1 1^T} for it to be sampled by projection.
+     */
+    private static final double PROJECTION_TOLERANCE = 1e-12;
 
-    private final Matrix onesMatrix;
     private final Matrix covariances;
     private final CholeskyDecomposition l;
     private final int DIMENSIONS;
 
+    /**
+     * The rows of the Cholesky factor, copied out of the decomposition once rather than on every sample.
+     */
+    private final double[][] factor;
+
+    /**
+     * Specifies whether the covariance is {@code I - (1/d) 1 1^T}, so samples can be drawn by projection.
+     */
+    private final boolean projected;
+
     public AnalyticalDistribution(int DIMENSIONS) {
-        this.DIMENSIONS = DIMENSIONS;
+        this(projectedIdentity(DIMENSIONS));
+    }
 
-        this.onesMatrix = new Matrix(DIMENSIONS, 1);
-        for (int i = 0; i < DIMENSIONS; i++) {
-            onesMatrix.set(i, 0, 1.0);
-        }
-        Matrix identityMatrix = Matrix.identity(DIMENSIONS, DIMENSIONS);
+    public AnalyticalDistribution(int DIMENSIONS, long seed) {
+        this(projectedIdentity(DIMENSIONS), seed);
+    }
 
-        this.covariances = identityMatrix.minus(onesMatrix.times(onesMatrix.transpose()).times(1 / (double) DIMENSIONS));
-        this.l = covariances.chol(); // singular and positive definite
+    public AnalyticalDistribution(Matrix covariances) {
+        this(covariances, new SplittableRandom().nextLong());
     }
 
-    public List<AnalyticalSolution> calculateSequence(int dominated, int nonDominated, double c) {
+    /**
+     * Constructs a distribution with the given covariance between objectives. When the covariance is
+     * {@code I - (1/d) 1 1^T}, as it is for every experiment, samples are drawn in O(d) time by projecting a
+     * standard normal vector onto the hyperplane whose entries sum to zero, rather than in O(d^2) time by
+     * multiplying it by the Cholesky factor.
+     *
+     * @param covariances a symmetric positive semi-definite covariance matrix
+     * @param seed        the seed every random value is derived from
+     */
+    public AnalyticalDistribution(Matrix covariances, long seed) {
+        this.seed = seed;
+        this.random = new GaussianStream(new SplittableRandom(seed));
+        this.DIMENSIONS = covariances.getRowDimension();
+        this.covariances = covariances;
+        this.l = covariances.chol(); // may be singular, positive semi-definite is enough
+        this.factor = l.getL().getArray();
+        this.projected = isProjectedIdentity(covariances);
+    }
 
-        double probability;
-        double d;
-        int nonDominatedPointsSoFar = 0;
+    private static Matrix projectedIdentity(int dimensions) {
+        Matrix onesMatrix = new Matrix(dimensions, 1, 1.0);
+        Matrix identityMatrix = Matrix.identity(dimensions, dimensions);
+        return identityMatrix.minus(onesMatrix.times(onesMatrix.transpose()).times(1 / (double) dimensions));
+    }
 
-        List<AnalyticalSolution> sequence = new ArrayList<>(nonDominated + dominated + 1);
+    private static boolean isProjectedIdentity(Matrix covariances) {
+        int dimensions = covariances.getRowDimension();
+        if (covariances.getColumnDimension() != dimensions) {
+            return false;
+        }
+        for (int i = 0; i < dimensions; i++) {
+            for (int j = 0; j < dimensions; j++) {
+                double expected = (i == j ? 1.0 : 0.0) - 1 / (double) dimensions;
+                if (Math.abs(covariances.get(i, j) - expected) > PROJECTION_TOLERANCE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
-        for (int t = 1; t <= nonDominated + dominated; t++) {
+    /**
+     * Finds if samples are drawn by projection rather than with the Cholesky factor.
+     *
+     * @return {@code true} if the covariance is {@code I - (1/d) 1 1^T}
+     */
+    public boolean isProjected() {
+        return projected;
+    }
 
-            probability = c * (((double) (nonDominated - nonDominatedPointsSoFar))) / (((double) (nonDominated + dominated) - t));
+    public Matrix getCovariances() {
+        return covariances;
+    }
 
-            if(random.nextDouble() < probability){
-                d = 0; // non dominated, c=1.1, later in sequence
-                nonDominatedPointsSoFar += 1;
-            } else {
-                d = 1; /// ((double) (nonDominated + dominated));
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generates a sequence of vectors, each sampled once. Whether each vector is non-dominated depends on how many
+     * came before it, so the means are decided in order, but the vectors are sampled in parallel in chunks which
+     * each have their own stream. The sequence is the same for a given seed however many threads are used, and is
+     * the same as the one generated by {@link #streamSequence(int, int, double)}.
+     *
+     * @param dominated    the number of dominated vectors
+     * @param nonDominated the number of non-dominated vectors
+     * @param c            scales the probability of a vector being non-dominated, so later vectors are more
+     *                     likely to be non-dominated when it is greater than one
+     * @return the vectors in the order they are added
+     */
+    public List<AnalyticalSolution> calculateSequence(int dominated, int nonDominated, double c) {
+        SequenceGenerator generator = streamSequence(dominated, nonDominated, c);
+        int length = generator.length();
+
+        double[] meanValues = new double[length];
+        for (int t = 0; t < length; t++) {
+            meanValues[t] = generator.nextMean();
+        }
+        GaussianStream[] chunkRandoms = new GaussianStream[(length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int k = 0; k < chunkRandoms.length; k++) {
+            chunkRandoms[k] = generator.chunkRandoms.split();
+        }
+
+        AnalyticalSolution[] sequence = new AnalyticalSolution[length];
+        IntStream.range(0, chunkRandoms.length).parallel().forEach(k -> {
+            for (int i = k * CHUNK_SIZE; i < Math.min(length, (k + 1) * CHUNK_SIZE); i++) {
+                sequence[i] = newVector(chunkRandoms[k], meanValues[i]);
             }
+        });
+        return new ArrayList<>(Arrays.asList(sequence));
+    }
+
+    /**
+     * Generates a sequence of vectors one at a time, as they are needed, so a sequence never has to be held in
+     * memory. Each call starts a new sequence.
+     *
+     * @param dominated    the number of dominated vectors
+     * @param nonDominated the number of non-dominated vectors
+     * @param c            scales the probability of a vector being non-dominated
+     * @return a generator of the vectors in the order they are added
+     */
+    public SequenceGenerator streamSequence(int dominated, int nonDominated, double c) {
+        return new SequenceGenerator(dominated, nonDominated, c);
+    }
+
+    /**
+     * Returns the mean of every objective of a vector.
+     *
+     * @param d      zero if the vector is non-dominated, one otherwise
+     * @param length the length of the sequence
+     * @param t      the position of the vector in the sequence, starting from one
+     */
+    static double mean(double d, int length, int t) {
+        return (d * (double) length) / (double) t;
+    }
 
-            Matrix means = this.onesMatrix.times((d * (double) (nonDominated + dominated)) / (double) t);
-            sequence.add(new AnalyticalSolution(sample(means), means, DIMENSIONS));
+    private AnalyticalSolution newVector(GaussianStream random, double mean) {
+        double[] objectives = new double[DIMENSIONS];
+        sample(random, objectives);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            objectives[i] += mean;
         }
-        return sequence;
+        return new AnalyticalSolution(objectives, mean);
     }
 
     public void sampleAll(List<AnalyticalSolution> vectors) {
+        double[] sample = new double[DIMENSIONS];
         for (AnalyticalSolution vector : vectors) {
-            vector.addSample(this.sample(vector.getMeans()));
+            this.sample(vector.getMean(), sample);
+            vector.addSample(sample);
         }
     }
 
     public double[] sample(Matrix means) {
-        Matrix z = computeZ();
-        Matrix randomMatrixArr = l.getL().times(z).plus(means);
-        return randomMatrixArr.getColumnPackedCopy();
+        double[] sample = new double[DIMENSIONS];
+        sample(means.getColumnPackedCopy(), sample);
+        return sample;
+    }
+
+    /**
+     * Draws a sample with the given means into a buffer without allocating.
+     *
+     * @param means  the mean of each objective
+     * @param sample the buffer the sample is written to, which may be reused between calls
+     */
+    public void sample(double[] means, double[] sample) {
+        sample(random, sample);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sample[i] += means[i];
+        }
+    }
+
+    /**
+     * Draws a sample where every objective has the same mean, as for the vectors of a sequence, into a buffer
+     * without allocating.
+     *
+     * @param mean   the mean of every objective
+     * @param sample the buffer the sample is written to, which may be reused between calls
+     */
+    public void sample(double mean, double[] sample) {
+        sample(random, sample);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sample[i] += mean;
+        }
+    }
+
+    /**
+     * Draws a sample with zero mean.
+     */
+    private void sample(GaussianStream random, double[] sample) {
+        if (projected) {
+            sampleProjected(random, sample);
+        } else {
+            sampleCholesky(random, sample);
+        }
+    }
+
+    /**
+     * Subtracting the average of a standard normal vector from each of its entries gives a vector with
+     * covariance {@code I - (1/d) 1 1^T}.
+     */
+    private void sampleProjected(GaussianStream random, double[] sample) {
+        double sum = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sample[i] = random.nextGaussian();
+            sum += sample[i];
+        }
+        double average = sum / DIMENSIONS;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sample[i] = sample[i] - average;
+        }
     }
 
-    private Matrix computeZ() {
-        Matrix z = new Matrix(DIMENSIONS, 1);
-        double noise = random.nextGaussian();
+    /**
+     * Computes {@code L z} for a standard normal vector z. Entry i of {@code L z} only depends on the first
+     * i + 1 entries of z as L is lower triangular, so z is drawn into the buffer and overwritten from the end.
+     */
+    private void sampleCholesky(GaussianStream random, double[] sample) {
         for (int i = 0; i < DIMENSIONS; i++) {
-            z.set(i, 0, noise);
+            sample[i] = random.nextGaussian();
+        }
+        for (int i = DIMENSIONS - 1; i >= 0; i--) {
+            double[] row = factor[i];
+            double s = 0;
+            for (int k = 0; k <= i; k++) {
+                s += row[k] * sample[k];
+            }
+            sample[i] = s;
+        }
+    }
+
+    /**
+     * Generates the vectors of a sequence on demand. Each vector is sampled from the stream of the chunk it falls
+     * in, and the streams are split in order as each chunk is reached, so the vectors are the same as those
+     * generated in parallel by {@link #calculateSequence(int, int, double)}.
+     */
+    public class SequenceGenerator implements VectorSequence {
+
+        /**
+         * Identifies how vectors are generated from a seed, and must be incremented whenever a change alters the
+         * vectors generated, so sequences stored by an earlier version are not replayed.
+         */
+        static final int GENERATOR_VERSION = 1;
+
+        private final int dominated;
+        private final int nonDominated;
+        private final double c;
+
+        /**
+         * The number of sequences this distribution started before this one.
+         */
+        private final int index;
+
+        /**
+         * The stream deciding which vectors are non-dominated.
+         */
+        private final GaussianStream decisionRandom;
+
+        /**
+         * The stream the stream of each chunk is split from.
+         */
+        private final GaussianStream chunkRandoms;
+
+        private GaussianStream chunkRandom;
+        private int t;
+        private int nonDominatedPointsSoFar;
+
+        private SequenceGenerator(int dominated, int nonDominated, double c) {
+            this.dominated = dominated;
+            this.nonDominated = nonDominated;
+            this.c = c;
+            this.index = sequences++;
+            GaussianStream sequenceRandom = random.split();
+            this.decisionRandom = sequenceRandom.split();
+            this.chunkRandoms = sequenceRandom.split();
+        }
+
+        @Override
+        public int length() {
+            return dominated + nonDominated;
+        }
+
+        @Override
+        public int generated() {
+            return t;
+        }
+
+        /**
+         * Returns a name which identifies this sequence among every sequence generated by a distribution with
+         * covariance {@code I - (1/d) 1 1^T}, or {@code null} if the distribution has another covariance.
+         */
+        String cacheName() {
+            if (!projected) {
+                return null;
+            }
+            return "D=" + DIMENSIONS + "_DOM=" + dominated + "_NON_DOM=" + nonDominated + "_c=" + c + "_seed=" + seed
+                + "_sequence=" + index + "_v=" + GENERATOR_VERSION;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return t < length();
+        }
+
+        @Override
+        public AnalyticalSolution next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (t % CHUNK_SIZE == 0) {
+                chunkRandom = chunkRandoms.split();
+            }
+            return newVector(chunkRandom, nextMean());
+        }
+
+        /**
+         * Decides whether the next vector is non-dominated and returns its mean.
+         */
+        private double nextMean() {
+            t++;
+
+            double probability = c * (((double) (nonDominated - nonDominatedPointsSoFar))) / (((double) (nonDominated + dominated) - t));
+            double d;
+
+            if(decisionRandom.nextDouble() < probability){
+                d = 0; // non dominated, c=1.1, later in sequence
+                nonDominatedPointsSoFar += 1;
+            } else {
+                d = 1; /// ((double) (nonDominated + dominated));
+            }
+
+            return mean(d, nonDominated + dominated, t);
+        }
+    }
+
+    /**
+     * Draws uniform and standard normal values from a splittable stream, which unlike {@link java.util.Random}
+     * can be divided into independent streams without any shared state.
+     */
+    private static class GaussianStream {
+        private final SplittableRandom random;
+        private double nextGaussian;
+        private boolean haveNextGaussian;
+
+        private GaussianStream(SplittableRandom random) {
+            this.random = random;
+        }
+
+        private GaussianStream split() {
+            return new GaussianStream(random.split());
+        }
+
+        private double nextDouble() {
+            return random.nextDouble();
+        }
+
+        /**
+         * Draws a standard normal value with the polar method, as {@link java.util.Random#nextGaussian()} does.
+         */
+        private double nextGaussian() {
+            if (haveNextGaussian) {
+                haveNextGaussian = false;
+                return nextGaussian;
+            }
+            double v1;
+            double v2;
+            double s;
+            do {
+                v1 = 2 * random.nextDouble() - 1;
+                v2 = 2 * random.nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextGaussian = v2 * multiplier;
+            haveNextGaussian = true;
+            return v1 * multiplier;
         }
-        return z;
     }
 }
@@ -1,35 +1,70 @@
 package projectimplementation.empiralAnalysis;
 
-import Jama.Matrix;
 import projectimplementation.guardianArchive.GuardianSolution;
 
+import java.util.Arrays;
+
 public class AnalyticalSolution extends GuardianSolution {
-    private final Matrix means;
+    /**
+     * The mean of every objective, which are all the same for the vectors of a sequence.
+     */
+    private final double mean;
+
+    /**
+     * The average of the samples, which is only allocated once the vector is first sampled or edited as most
+     * vectors of a sequence never are.
+     */
     private double[] sample;
     private int numSamples;
     //private final GuardianSolution solution;
 
-    AnalyticalSolution(double[] objectives, Matrix means, int dimensions){
+    AnalyticalSolution(double[] objectives, double mean){
         super(objectives);
-        this.means = means;
+        this.mean = mean;
         numSamples = 0;
-        this.sample = new double[dimensions];
     }
 
+    /**
+     * Adds a sample to the running average of the samples, updating it in place.
+     *
+     * @param sample the new sample, which is not retained
+     */
     public void addSample(double[] sample){
+        double[] average = getSample();
         numSamples += 1;
         for(int i=0; i<sample.length; i++){
-            this.sample[i] += (sample[i] - this.sample[i]) / numSamples;
+            average[i] += (sample[i] - average[i]) / numSamples;
         }
     }
 
-    public Matrix getMeans(){
-        return this.means;
+    public double getMean(){
+        return this.mean;
+    }
+
+    /**
+     * Returns the mean of each objective.
+     *
+     * @return a new array holding the mean of each objective
+     */
+    public double[] getMeans(){
+        double[] means = new double[getNumberOfObjectives()];
+        Arrays.fill(means, mean);
+        return means;
     }
 
     public double[] getSample(){
+        if (this.sample == null) {
+            this.sample = new double[getNumberOfObjectives()];
+        }
         return this.sample;
     }
 
     public void setSample(double[] sample){ this.sample = sample;}
+
+    /**
+     * Sets every value of the sample to the mean, in place.
+     */
+    public void setSampleToMean(){
+        Arrays.fill(getSample(), mean);
+    }
 }
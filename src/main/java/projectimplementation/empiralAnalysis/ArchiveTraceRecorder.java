@@ -0,0 +1,203 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.guardianArchive.ArchiveEvent;
+import projectimplementation.guardianArchive.ArchiveEventPublisher;
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.DynamicSolution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+/**
+ * Records every add and objective edit applied to an archive in a trace which {@link ArchiveTraceReplayer} replays
+ * against any archive. Each solution is given an id the first time it is added, and each record holds the
+ * operation, the id of the solution and its objectives once the operation was applied.
+ * <p>
+ * A trace starts with a header of the magic number, the version and the number of objectives, followed by records
+ * of one operation byte, the id as an int and the objectives as doubles, so every record has the same size.
+ * Solutions edited before the recorder was subscribed are recorded as added when they are first edited.
+ *
+ * @param <T> the type of solution stored in the archive
+ */
+public class ArchiveTraceRecorder<T extends DynamicSolution> implements Flow.Subscriber<ArchiveEvent<T>>, AutoCloseable {
+
+    static final int MAGIC = 0x54524345; // "TRCE"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    static final byte ADD = 0;
+    static final byte EDIT = 1;
+
+    private final DataOutputStream out;
+    private final int numberOfObjectives;
+    private final Map<T, Integer> ids;
+    private Flow.Subscription subscription;
+
+    /**
+     * The archive given a publisher by {@link #record(DynamicArchive, Path)}, and that publisher, which are
+     * {@code null} if the recorder was subscribed to an existing publisher.
+     */
+    private DynamicArchive<T> archive;
+    private ArchiveEventPublisher<T> installed;
+
+    private long records;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Constructs a recorder writing to a new trace, which must be subscribed to the events of an archive.
+     * The publisher should wait for space rather than drop events, or the trace will be incomplete.
+     *
+     * @param file               the trace to write, which is replaced if it exists
+     * @param numberOfObjectives the number of objectives of the recorded solutions
+     * @throws IOException if the trace cannot be created
+     */
+    public ArchiveTraceRecorder(Path file, int numberOfObjectives) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.numberOfObjectives = numberOfObjectives;
+        this.ids = new IdentityHashMap<>();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(numberOfObjectives);
+    }
+
+    /**
+     * Starts recording an archive, subscribing to its event publisher. If the archive has none it is given one which
+     * delivers events on the thread which applied the operation and never drops them, so records are written in the
+     * order the operations were applied, and which is removed again when the recorder is closed. An existing
+     * publisher is kept for its other subscribers, and the trace is only complete if it never drops events and has
+     * delivered them all before the recorder is closed. Operations before this call are not recorded.
+     *
+     * @param archive the archive to record
+     * @param file    the trace to write, which is replaced if it exists
+     * @param <T>     the type of solution stored in the archive
+     * @return the recorder, which must be closed to finish the trace
+     * @throws IOException if the trace cannot be created
+     */
+    public static <T extends DynamicSolution> ArchiveTraceRecorder<T> record(DynamicArchive<T> archive, Path file) throws IOException {
+        ArchiveTraceRecorder<T> recorder = new ArchiveTraceRecorder<>(file, archive.NUMBER_OF_OBJECTIVES);
+        if (!archive.hasEventPublisher()) {
+            ArchiveEventPublisher<T> publisher = new ArchiveEventPublisher<>(Runnable::run, Flow.defaultBufferSize(), false);
+            archive.setEventPublisher(publisher);
+            recorder.archive = archive;
+            recorder.installed = publisher;
+        }
+        archive.getEventPublisher().subscribe(recorder);
+        return recorder;
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized void onNext(ArchiveEvent<T> event) {
+        if (closed || failure != null) {
+            return;
+        }
+        try {
+            switch (event.getType()) {
+                case ADDED:
+                    Integer id = ids.get(event.getSolution());
+                    if (id == null) {
+                        id = ids.size();
+                        ids.put(event.getSolution(), id);
+                    }
+                    write(ADD, id, event);
+                    break;
+                case EDITED:
+                    Integer edited = ids.get(event.getSolution());
+                    if (edited == null) {
+                        edited = ids.size();
+                        ids.put(event.getSolution(), edited);
+                        write(ADD, edited, event);
+                    } else {
+                        write(EDIT, edited, event);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            failure = e;
+            subscription.cancel();
+        }
+    }
+
+    private void write(byte operation, int id, ArchiveEvent<T> event) throws IOException {
+        out.writeByte(operation);
+        out.writeInt(id);
+        for (int i = 0; i < numberOfObjectives; i++) {
+            out.writeDouble(event.getObjective(i));
+        }
+        records++;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        finish();
+    }
+
+    @Override
+    public void onComplete() {
+        finish();
+    }
+
+    /**
+     * Returns the number of operations recorded so far.
+     *
+     * @return the number of records in the trace
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Stops recording and finishes the trace. A publisher given to the archive by
+     * {@link #record(DynamicArchive, Path)} is removed from it and closed.
+     *
+     * @throws UncheckedIOException if the trace could not be written
+     */
+    @Override
+    public synchronized void close() {
+        finish();
+        if (installed != null) {
+            if (archive.hasEventPublisher() && archive.getEventPublisher() == installed) {
+                archive.setEventPublisher(null);
+            }
+            installed.close();
+            installed = null;
+            archive = null;
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Cancels the subscription and closes the trace, keeping any failure to be reported by {@link #close()}.
+     */
+    private synchronized void finish() {
+        if (!closed) {
+            closed = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package projectimplementation.empiralAnalysis;
+
+import org.moeaframework.core.comparator.DominanceComparator;
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.DynamicSolution;
+import projectimplementation.guardianArchive.GuardianArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+import projectimplementation.guardianArchive.ListArchive;
+import projectimplementation.guardianArchive.ParetoDominanceCounter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Replays a trace written by {@link ArchiveTraceRecorder} against an archive as fast as it will go, so different
+ * archives can be compared on the same operations. The trace is memory-mapped, and each operation is timed without
+ * the time taken to read it or to create its solution.
+ * <p>
+ * For example, {@code ArchiveTraceReplayer trace.bin guardian list} replays a trace against a guardian archive and
+ * then a list archive, printing the result of each.
+ */
+public class ArchiveTraceReplayer {
+
+    /**
+     * The largest region of the trace which is mapped at once.
+     */
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final Path file;
+    private final int numberOfObjectives;
+    private final int recordBytes;
+    private final int records;
+
+    /**
+     * Opens a trace, ignoring a final record which was only partly written.
+     *
+     * @param file the trace to replay
+     * @throws IOException if the trace cannot be read or is not a trace
+     */
+    public ArchiveTraceReplayer(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ArchiveTraceRecorder.HEADER_BYTES);
+            if (header.getInt(0) != ArchiveTraceRecorder.MAGIC || header.getInt(4) != ArchiveTraceRecorder.VERSION) {
+                throw new IOException(file + " is not an archive trace");
+            }
+            this.numberOfObjectives = header.getInt(8);
+            this.recordBytes = 1 + Integer.BYTES + numberOfObjectives * Double.BYTES;
+            long count = (channel.size() - ArchiveTraceRecorder.HEADER_BYTES) / recordBytes;
+            if (count > Integer.MAX_VALUE - 8) {
+                throw new IOException(file + " has too many records to replay");
+            }
+            this.records = (int) count;
+        }
+    }
+
+    public int getNumberOfObjectives() {
+        return numberOfObjectives;
+    }
+
+    /**
+     * Returns the number of operations in the trace.
+     *
+     * @return the number of complete records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Replays the trace against a new archive which counts its domination comparisons.
+     *
+     * @param archiveFactory creates an empty archive from the comparator it must use
+     * @return the result of the replay
+     * @throws IOException if the trace cannot be read
+     */
+    public Result replay(Function<DominanceComparator, DynamicArchive<GuardianSolution>> archiveFactory) throws IOException {
+        ParetoDominanceCounter counter = new ParetoDominanceCounter();
+        DynamicArchive<GuardianSolution> archive = archiveFactory.apply(counter);
+        Result result = replay(archive, GuardianSolution::new);
+        result.comparisons = counter.getCounter();
+        return result;
+    }
+
+    /**
+     * Replays the trace against an archive, creating a new solution for each solution added by the trace.
+     * Domination comparisons are only counted by {@link #replay(Function)}.
+     *
+     * @param archive  the archive to replay the trace against
+     * @param factory  creates a solution from its objectives
+     * @param <T>      the type of solution stored in the archive
+     * @return the result of the replay
+     * @throws IOException if the trace cannot be read
+     */
+    public <T extends DynamicSolution> Result replay(DynamicArchive<T> archive, Function<double[], T> factory) throws IOException {
+        if (archive.NUMBER_OF_OBJECTIVES != numberOfObjectives) {
+            throw new IllegalArgumentException("The archive has " + archive.NUMBER_OF_OBJECTIVES
+                + " objectives but the trace has " + numberOfObjectives);
+        }
+        Result result = new Result(records);
+        List<T> solutions = new ArrayList<>();
+        double[] edit = new double[numberOfObjectives];
+        int recordsPerSegment = MAX_SEGMENT_BYTES / recordBytes;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int first = 0; first < records; first += recordsPerSegment) {
+                int count = Math.min(recordsPerSegment, records - first);
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY,
+                    ArchiveTraceRecorder.HEADER_BYTES + (long) first * recordBytes, (long) count * recordBytes);
+                for (int r = 0; r < count; r++) {
+                    int offset = r * recordBytes;
+                    byte operation = segment.get(offset);
+                    int id = segment.getInt(offset + 1);
+                    offset += 1 + Integer.BYTES;
+                    if (operation == ArchiveTraceRecorder.ADD) {
+                        T solution;
+                        if (id < solutions.size()) {
+                            solution = solutions.get(id); // added again
+                        } else {
+                            double[] objectives = new double[numberOfObjectives];
+                            for (int i = 0; i < numberOfObjectives; i++) {
+                                objectives[i] = segment.getDouble(offset + i * Double.BYTES);
+                            }
+                            solution = factory.apply(objectives);
+                            solutions.add(solution);
+                        }
+                        long start = System.nanoTime();
+                        archive.add(solution);
+                        result.latencies[result.operations++] = System.nanoTime() - start;
+                        result.adds++;
+                    } else {
+                        for (int i = 0; i < numberOfObjectives; i++) {
+                            edit[i] = segment.getDouble(offset + i * Double.BYTES);
+                        }
+                        T solution = solutions.get(id);
+                        long start = System.nanoTime();
+                        archive.editObjectives(solution, edit);
+                        result.latencies[result.operations++] = System.nanoTime() - start;
+                        result.edits++;
+                    }
+                }
+            }
+        }
+
+        result.size = archive.size();
+        result.paretoSize = archive.paretoSize();
+        result.checksum = frontChecksum(archive);
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    /**
+     * Calculates a checksum of the objectives of the Pareto set which does not depend on the order of its members,
+     * so archives which end with the same front have the same checksum.
+     *
+     * @param archive the archive whose Pareto set is summed
+     * @return the checksum of the Pareto set
+     */
+    public static long frontChecksum(DynamicArchive<? extends DynamicSolution> archive) {
+        long[] checksum = new long[1];
+        archive.forEachPareto(solution -> {
+            long hash = 0;
+            for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+                hash = mix(hash ^ Double.doubleToLongBits(solution.getObjective(i)));
+            }
+            checksum[0] += hash;
+        });
+        return checksum[0];
+    }
+
+    /**
+     * The finaliser of SplitMix64, which spreads every bit of the input across the output.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The outcome of replaying a trace against an archive.
+     */
+    public static class Result {
+        private final long[] latencies;
+        private int operations;
+        private int adds;
+        private int edits;
+        private long comparisons = -1;
+        private int size;
+        private int paretoSize;
+        private long checksum;
+
+        private Result(int records) {
+            this.latencies = new long[records];
+        }
+
+        public int getOperations() {
+            return operations;
+        }
+
+        public int getAdds() {
+            return adds;
+        }
+
+        public int getEdits() {
+            return edits;
+        }
+
+        /**
+         * Returns the number of domination comparisons made by the archive.
+         *
+         * @return the number of comparisons, or -1 if they were not counted
+         */
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        /**
+         * Returns the total time spent in the archive's operations.
+         *
+         * @return the sum of the latencies in nanoseconds
+         */
+        public long getTotalNanos() {
+            long total = 0;
+            for (long latency : latencies) {
+                total += latency;
+            }
+            return total;
+        }
+
+        /**
+         * Returns the latency which the given fraction of operations took at most.
+         *
+         * @param quantile the fraction of operations, between 0 and 1
+         * @return the latency in nanoseconds
+         */
+        public long getLatency(double quantile) {
+            if (operations == 0) {
+                return 0;
+            }
+            return latencies[(int) Math.min(operations - 1, Math.floor(quantile * operations))];
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getParetoSize() {
+            return paretoSize;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public String toString() {
+            return operations + " " + adds + " " + edits + " " + comparisons + " " + getTotalNanos() + " "
+                + getLatency(0.5) + " " + getLatency(0.99) + " " + getLatency(1) + " " + size + " " + paretoSize + " "
+                + Long.toHexString(checksum);
+        }
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ArchiveTraceReplayer <trace> [guardian|list ...]");
+            System.exit(2);
+        }
+        ArchiveTraceReplayer replayer = new ArchiveTraceReplayer(Paths.get(args[0]));
+        List<String> archives = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : Arrays.asList("guardian", "list");
+        int d = replayer.getNumberOfObjectives();
+        System.out.println("archive operations adds edits comparisons nanos p50 p99 max size paretoSize checksum");
+        for (String archive : archives) {
+            Experiment.ArchiveType type = Experiment.ArchiveType.valueOf(archive.trim().toUpperCase());
+            Result result = replayer.replay(comparator -> type == Experiment.ArchiveType.GUARDIAN
+                ? new GuardianArchive(d, comparator) : new ListArchive(d, comparator));
+            System.out.println(archive + " " + result);
+        }
+    }
+}
@@ -7,11 +7,18 @@ import projectimplementation.guardianArchive.*;
 import java.io.*;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -27,15 +34,30 @@ public class Experiment {
     private static final GuardianAssignment[] c4 = new GuardianAssignment[]{FIRST, FIRST, FIRST, FIRST, FIRST, FIRST};
     private static final GuardianAssignment[] c5 = new GuardianAssignment[]{CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST};
     private static final GuardianAssignment[] c6 = new GuardianAssignment[]{FEWEST, FEWEST, FEWEST, FEWEST, FEWEST, FEWEST};
+    private static final GuardianAssignment[] c7 = new GuardianAssignment[]{DEEPEST, DEEPEST, DEEPEST, DEEPEST, DEEPEST, DEEPEST};
+    private static final GuardianAssignment[] c8 = new GuardianAssignment[]{SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE};
+
+
+    private static final List<GuardianAssignment[]> combinations = new ArrayList<>(Arrays.asList(c1, c2, c3, c4, c5, c6, c7, c8));
+
+    /**
+     * The simulations run by each experiment, which add every vector of the sequence and edit one member after
+     * each add: any member or a Pareto member, set to its mean or sampled once more. The first has always left out
+     * the last vector, which is kept so its results can be compared with earlier runs.
+     */
+    private static final List<Workload> workloads = Arrays.asList(
+        Workload.builder().target(Workload.Target.RANDOM_MEMBER).edit(Workload.Edit.MEAN).skipLast(1).build(),
+        Workload.builder().target(Workload.Target.PARETO_MEMBER).edit(Workload.Edit.MEAN).build(),
+        Workload.builder().target(Workload.Target.RANDOM_MEMBER).edit(Workload.Edit.SAMPLE).build(),
+        Workload.builder().target(Workload.Target.PARETO_MEMBER).edit(Workload.Edit.SAMPLE).build());
+    private static final List<SimulationRunner> simulations = workloads.stream()
+        .map(workload -> (SimulationRunner) (experiment, sequence, population) -> experiment.runWorkload(workload, sequence, population))
+        .collect(Collectors.toList());
 
-
-    private static final List<GuardianAssignment[]> combinations = new ArrayList<>(Arrays.asList(c1, c2, c3, c4, c5, c6));
-    private static final ParetoDominanceCounter comparator = new ParetoDominanceCounter();
-    private static final List<SimulationRunner> simulations = new ArrayList<>(Arrays.asList(Experiment::testSimulation1, Experiment::testSimulation2, Experiment::testSimulation3, Experiment::testSimulation4));
-
-    private static AnalyticalDistribution distribution;
     private static final int N = 10;
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
     private static final int DATA_INTERVAL = 1;
+    private static final boolean TRACK_HYPERVOLUME = false;
 
     private ExperimentResults results;
     private int dominated;
@@ -43,15 +65,125 @@ public class Experiment {
     private double c;
     private int dimensions;
     private int combinationIndex;
+    private ArchiveType archiveType;
+
+    // state of a single repetition, so repetitions can run concurrently
+    private final ParetoDominanceCounter comparator;
+    private final AnalyticalDistribution distribution;
+    private final Random random;
+
+    /**
+     * The seed of the experiment, from which the seed of each repetition is derived, or the seed of a repetition.
+     */
+    private final long seed;
+
+    /**
+     * Whether the seed was given, so the checkpoints of a previous run must have been made with the same seeds to
+     * be merged. An unseeded experiment merges any checkpoint, as its seed differs on every run.
+     */
+    private final boolean seeded;
+
+    /**
+     * Stores the sequences of the repetitions so other experiments with the same seed can replay them, if set.
+     */
+    private SequenceCache sequenceCache;
 
 
     public Experiment(int dimensions, int combinationIndex, int dominated, int nonDominated, double c, String filename) {
-        this.results = new ExperimentResults(filename, N, 2*(dominated + nonDominated) / DATA_INTERVAL, DATA_INTERVAL);
+        this(dimensions, combinationIndex, dominated, nonDominated, c, ArchiveType.GUARDIAN, filename);
+    }
+
+    public Experiment(int dimensions, int combinationIndex, int dominated, int nonDominated, double c, ArchiveType archiveType, String filename) {
+        this(dimensions, combinationIndex, dominated, nonDominated, c, archiveType, new SplittableRandom().nextLong(), false, filename);
+    }
+
+    /**
+     * Constructs an experiment whose repetitions are reproducible. Every random value used by a repetition is
+     * derived from the seed and the index of the simulation and repetition, so running the experiment again with
+     * the same seed generates the same sequences and makes the same edits.
+     *
+     * @param seed the seed of the experiment, which is recorded with its results
+     */
+    public Experiment(int dimensions, int combinationIndex, int dominated, int nonDominated, double c, ArchiveType archiveType, long seed, String filename) {
+        this(dimensions, combinationIndex, dominated, nonDominated, c, archiveType, seed, true, filename);
+    }
+
+    private Experiment(int dimensions, int combinationIndex, int dominated, int nonDominated, double c, ArchiveType archiveType, long seed, boolean seeded, String filename) {
+        int operations = workloads.stream().mapToInt(workload -> workload.operations(dominated + nonDominated)).max().getAsInt();
+        this.results = new ExperimentResults(filename, N, operations / DATA_INTERVAL, DATA_INTERVAL, TRACK_HYPERVOLUME);
         this.dominated = dominated;
         this.nonDominated = nonDominated;
         this.c = c;
         this.dimensions = dimensions;
         this.combinationIndex = combinationIndex;
+        this.archiveType = archiveType;
+        this.comparator = new ParetoDominanceCounter();
+        this.distribution = new AnalyticalDistribution(dimensions, seed);
+        this.random = new Random(seed);
+        this.seed = seed;
+        this.seeded = seeded;
+        this.results.seed = seed;
+    }
+
+    /**
+     * Constructs a single repetition of an experiment, which records its data separately to be merged later.
+     *
+     * @param seed the seed of the repetition, from which its distribution and random number generator are seeded
+     */
+    private Experiment(Experiment experiment, long seed) {
+        this.results = experiment.results.newRun();
+        this.dominated = experiment.dominated;
+        this.nonDominated = experiment.nonDominated;
+        this.c = experiment.c;
+        this.dimensions = experiment.dimensions;
+        this.combinationIndex = experiment.combinationIndex;
+        this.archiveType = experiment.archiveType;
+        this.comparator = new ParetoDominanceCounter();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        this.distribution = new AnalyticalDistribution(dimensions, seeds.nextLong());
+        this.random = new Random(seeds.nextLong());
+        this.seed = seed;
+        this.seeded = experiment.seeded;
+        this.results.seed = seed;
+        this.sequenceCache = experiment.sequenceCache;
+    }
+
+    /**
+     * Sets the cache the sequence of each repetition is generated through. Experiments which share a seed and
+     * sequence parameters, such as those of different combinations or archive types, then generate each sequence
+     * once and replay it, and their results are the same as without the cache.
+     *
+     * @param sequenceCache the cache to use, or {@code null} to generate every sequence
+     */
+    public void setSequenceCache(SequenceCache sequenceCache) {
+        this.sequenceCache = sequenceCache;
+    }
+
+    /**
+     * Sets the directory the results, completion marker and checkpoints of the experiment are written to.
+     *
+     * @param directory the directory to write to, {@code src/test/resources} in the working directory by default
+     */
+    public void setOutputDirectory(Path directory) {
+        results.setDirectory(directory);
+    }
+
+    /**
+     * Returns the workloads of the simulations run by each experiment, in order.
+     *
+     * @return an unmodifiable list of the workloads
+     */
+    public static List<Workload> getWorkloads() {
+        return Collections.unmodifiableList(workloads);
+    }
+
+    /**
+     * Derives the seed of a repetition from the seed of the experiment. It only depends on the indices, so it is
+     * the same whichever process or thread runs the repetition.
+     */
+    private long repetitionSeed(int simulationIndex, int repetition) {
+        int index = simulationIndex * N + repetition;
+        return new SplittableRandom(seed).longs(index + 1).skip(index).findFirst().getAsLong();
     }
 
     public static void main(String... args) throws InterruptedException {
@@ -65,7 +197,6 @@ public class Experiment {
         int DOMINATED = 49488;
         int NON_DOMINATED = 512;
         double c = 1.0;
-        distribution = new AnalyticalDistribution(2);
         Experiment experiment = new Experiment(2, 0, DOMINATED, NON_DOMINATED, c, "results.dat");
 
         experiment.runSimulations();
@@ -79,25 +210,9 @@ public class Experiment {
         int[] NON_DOMINATED = new int[]{128, 512, 2048};
          */
 
-        int[] DIMENSIONS = new int[]{2};
-        double[] c = new double[]{1.0};
-        int[] DOMINATED = new int[]{49872, 49488, 47952};
-        int[] NON_DOMINATED = new int[]{128, 512, 2048};
-
         //pullOverleaf();
 
-        for (int i = 0; i < DIMENSIONS.length; i++) {
-            distribution = new AnalyticalDistribution(DIMENSIONS[i]);
-            for (int j = 0; j < c.length; j++) {
-                for (int k = 0; k < DOMINATED.length; k++) {
-
-                    for (int l = 0; l < combinations.size()-5; l++) {
-                        String filename = "linear_results_c" + (l + 1) + "_D=" + DIMENSIONS[i] + "_NON_DOM=" + NON_DOMINATED[k] + "_c=" + c[j] + ".dat";
-                        runExperiment(DIMENSIONS[i], l, DOMINATED[k], NON_DOMINATED[k], c[j], filename);
-                    }
-                }
-            }
-        }
+        ExperimentSweep.main("dimensions=2", "c=1.0", "dominated=49872,49488,47952", "nonDominated=128,512,2048", "combinations=1");
 
         //plotGraphs(simulations.size());
         //updateOverleaf();
@@ -108,168 +223,165 @@ public class Experiment {
         experiment.runSimulations();
     }
 
-    private long timeEdit(AnalyticalSolution solution, double[] newObjectives) {
-        long cpuTime = bean.getCurrentThreadCpuTime();
-        solution.setObjectives(newObjectives);
-        return bean.getCurrentThreadCpuTime() - cpuTime;
-    }
-
-    private long timeAdd(DynamicArchive<GuardianSolution> population, AnalyticalSolution solution) {
-        long cpuTime = bean.getCurrentThreadCpuTime();
-        population.add(solution);
-        return bean.getCurrentThreadCpuTime() - cpuTime;
+    private void recordData(int timestep, DynamicArchive<GuardianSolution> population, long time) {
+        results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+        if (TRACK_HYPERVOLUME) {
+            results.addHypervolume(timestep, population.hypervolume());
+        }
     }
 
-    private long testSimulation1(List<AnalyticalSolution> vectorSequence, DynamicArchive<GuardianSolution> population) {
+    /**
+     * Runs a workload against the archive, recording the data after every operation and timing the archive's
+     * operations in CPU time.
+     *
+     * @return the total time taken by the archive in milliseconds
+     */
+    private long runWorkload(Workload workload, VectorSequence vectorSequence, DynamicArchive<GuardianSolution> population) {
+        Workload.Driver driver = workload.driver(vectorSequence, population, random, distribution, bean::getCurrentThreadCpuTime);
         long time = 0;
-        int vectorSequenceSize = vectorSequence.size();
-        Random random = new Random();
         int timestep = 1;
-
-
-        for (int i = 0; i < vectorSequenceSize-1; i++) {
-            // add vector with one sample to population
-            time += timeAdd(population, vectorSequence.get(i));
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+        while (driver.hasNext()) {
+            time += driver.step();
+            if (timestep % DATA_INTERVAL == 0) {
+                recordData(timestep, population, time);
             }
             timestep += 1;
-
-            // edit any random vector in population
-            AnalyticalSolution vector = vectorSequence.get(random.nextInt(i + 1));
-
-            // get mean of random vector and set it as that vectors sample
-            vector.setSample(vector.getMeans().getColumnPackedCopy());
-            double[] newObjectives = vector.getSample();
-
-            time += timeEdit(vector, newObjectives);
-
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
-            }
-
-            timestep += 1;
-
         }
-
         return TimeUnit.MILLISECONDS.convert(time, TimeUnit.NANOSECONDS);
     }
 
-    private long testSimulation2(List<AnalyticalSolution> vectorSequence, DynamicArchive<GuardianSolution> population) {
-        long time = 0;
-        int vectorSequenceSize = vectorSequence.size();
-        Random random = new Random();
-        int timestep = 1;
-
-        for (int i = 0; i < vectorSequenceSize; i++) {
-            // add vector with one sample to population
-            time += timeAdd(population, vectorSequence.get(i));
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
-            }
-            timestep += 1;
-
-            // edit a pareto vector in population
-            AnalyticalSolution vector = (AnalyticalSolution) population.paretoSet().get(random.nextInt(population.paretoSize()));
+    private void runSimulations() throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(Math.min(N, PARALLELISM));
+        try {
+            runSimulations(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-            // get mean of random vector and set it as that vectors sample
-            vector.setSample(vector.getMeans().getColumnPackedCopy());
-            double[] newObjectives = vector.getSample();
+    /**
+     * Runs the N repetitions of each simulation concurrently. Each repetition has its own comparator, distribution,
+     * random number generator, archive and results, which are merged in order once they have all finished.
+     * The generators of each repetition are seeded from the seed of the experiment, which is recorded with the
+     * seed of every repetition in the completion marker.
+     * When called from a task in the pool, the repetitions are forked within it so idle workers can steal them.
+     * <p>
+     * Every finished repetition is checkpointed, so if the experiment is run again after being interrupted only the
+     * missing repetitions are run. Experiments which have already finished are skipped.
+     *
+     * @param pool the pool to run the repetitions in
+     * @return {@code true} if the experiment was run, {@code false} if its results already exist
+     */
+    public boolean runSimulations(ForkJoinPool pool) {
+        if (results.isComplete()) {
+            return false;
+        }
+        if (results.hasUnmarkedOutput()) {
+            System.err.println("Not overwriting " + results.filename + " which has no completion marker");
+            return false;
+        }
 
-            time += timeEdit(vector, newObjectives);
+        for (int s = 0; s < simulations.size(); s++) {
+            ExperimentResults[] runs = runRepetitions(pool, s, i -> true);
 
-            // record data every 100 time steps
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+            long total = 0;
+            for (int i = 0; i < N; i++) {
+                total += runs[i].runTime;
+                this.results.merge(runs[i]);
             }
-
-            timestep += 1;
+            this.results.writeSimulation(total / N);
+            this.results.clearData();
         }
-
-        return TimeUnit.MILLISECONDS.convert(time, TimeUnit.NANOSECONDS);
+        this.results.finish();
+        return true;
     }
 
-    private long testSimulation3(List<AnalyticalSolution> vectorSequence, DynamicArchive<GuardianSolution> population) {
-        long time = 0;
-        int vectorSequenceSize = vectorSequence.size();
-        Random random = new Random();
-        int timestep = 1;
-
-        for (int i = 0; i < vectorSequenceSize; i++) {
-            // add vector with one sample to population
-            time += timeAdd(population, vectorSequence.get(i));
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
-            }
-            timestep += 1;
-
-            // find a random member of population
-            AnalyticalSolution vector = vectorSequence.get(random.nextInt(i + 1));
-
-            // sample random vector once
-            vector.addSample(distribution.sample(vector.getMeans()));
-            double[] newObjectives = vector.getSample();
-
-            time += timeEdit(vector, newObjectives);
-
-            // record data every 100 time steps
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+    /**
+     * Runs one shard of the repetitions of every simulation, checkpointing each one without writing any results.
+     * Repetitions are numbered across simulations and dealt out in turn, starting from the given offset, so the
+     * shards of a sweep can be run by separate processes and then merged by {@link #runSimulations(ForkJoinPool)}.
+     *
+     * @param pool   the pool to run the repetitions in
+     * @param shard  the index of the shard to run
+     * @param shards the number of shards
+     * @param offset the shard which runs the first repetition, so small experiments are spread across shards
+     * @return the number of repetitions in the shard, including those which were already checkpointed
+     */
+    public int runShard(ForkJoinPool pool, int shard, int shards, int offset) {
+        if (results.isComplete() || results.hasUnmarkedOutput()) {
+            return 0;
+        }
+        int repetitions = 0;
+        for (int s = 0; s < simulations.size(); s++) {
+            int first = s * N + offset;
+            for (ExperimentResults run : runRepetitions(pool, s, i -> (first + i) % shards == shard)) {
+                if (run != null) {
+                    repetitions++;
+                }
             }
-
-            timestep += 1;
         }
-
-        return TimeUnit.MILLISECONDS.convert(time, TimeUnit.NANOSECONDS);
+        return repetitions;
     }
 
-    private long testSimulation4(List<AnalyticalSolution> vectorSequence, DynamicArchive<GuardianSolution> population) {
-        long time = 0;
-        int vectorSequenceSize = vectorSequence.size();
-        Random random = new Random();
-        int timestep = 1;
-
-        for (int i = 0; i < vectorSequenceSize; i++) {
-            // add vector with one sample to population
-            time += timeAdd(population, vectorSequence.get(i));
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+    /**
+     * Runs the chosen repetitions of a simulation which have not already been checkpointed, concurrently.
+     *
+     * @return the results of each repetition, which are null if they were not chosen or loaded
+     */
+    private ExperimentResults[] runRepetitions(ForkJoinPool pool, int simulationIndex, IntPredicate chosen) {
+        SimulationRunner simulation = simulations.get(simulationIndex);
+        ExperimentResults[] runs = new ExperimentResults[N];
+        int[] indices = new int[N];
+        List<ForkJoinTask<ExperimentResults>> remaining = new ArrayList<>(N);
+        for (int i = 0; i < N; i++) {
+            if (!chosen.test(i)) {
+                continue;
             }
-            timestep += 1;
-
-            // find a pareto vector in population
-            AnalyticalSolution vector = (AnalyticalSolution) population.paretoSet().get(random.nextInt(population.paretoSize()));
-
-            // sample pareto vector once
-            vector.addSample(distribution.sample(vector.getMeans()));
-            double[] newObjectives = vector.getSample();
-
-            time += timeEdit(vector, newObjectives);
-
-            // record data every 100 time steps
-            if ((i + 1) % DATA_INTERVAL == 0) {
-                results.addData(timestep, comparator.getCounter(), population.size(), population.paretoSize(), time);
+            long repetitionSeed = repetitionSeed(simulationIndex, i);
+            runs[i] = results.loadRepetition(simulationIndex, i, seeded ? repetitionSeed : null);
+            if (runs[i] == null) {
+                Experiment repetition = new Experiment(this, repetitionSeed);
+                int repetitionIndex = i;
+                indices[remaining.size()] = i;
+                remaining.add(ForkJoinTask.adapt(() -> {
+                    repetition.results.runTime = repetition.runRepetition(simulation);
+                    results.saveRepetition(simulationIndex, repetitionIndex, repetition.results);
+                    return repetition.results;
+                }));
             }
-
-            timestep += 1;
         }
-
-        return TimeUnit.MILLISECONDS.convert(time, TimeUnit.NANOSECONDS);
+        if (remaining.isEmpty()) {
+            return runs;
+        }
+        if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(remaining);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(remaining)));
+        }
+        for (int j = 0; j < remaining.size(); j++) {
+            runs[indices[j]] = remaining.get(j).join();
+        }
+        return runs;
     }
 
-    private void runSimulations() throws InterruptedException {
-        for (SimulationRunner simulation : simulations) {
-            long total = 0;
-            for (int i = 0; i < N; i++) {
-                List<AnalyticalSolution> vectorSequence = this.distribution.calculateSequence(this.dominated, this.nonDominated, this.c);
-                DynamicArchive<GuardianSolution> population = new GuardianArchive(dimensions, comparator, NondominatedPopulation.DuplicateMode.ALLOW_DUPLICATES, new EuclideanDistance(), combinations.get(combinationIndex));
-                //DynamicArchive<GuardianSolution> population = new ListArchive(dimensions, comparator);
-                total += simulation.runSimulation(this, vectorSequence, population);
-                comparator.resetCount();
-            }
-            this.results.writeSimulation(total / N);
-            this.results.clearData();
+    private long runRepetition(SimulationRunner simulation) throws InterruptedException {
+        VectorSequence vectorSequence = sequenceCache == null
+            ? this.distribution.streamSequence(this.dominated, this.nonDominated, this.c)
+            : sequenceCache.open(this.distribution, this.dominated, this.nonDominated, this.c);
+        DynamicArchive<GuardianSolution> population = archiveType.create(this);
+        if (TRACK_HYPERVOLUME) {
+            population.setReferencePoint(referencePoint());
         }
+        return simulation.runSimulation(this, vectorSequence, population);
+    }
+
+    /**
+     * The reference point for the hypervolume, which is weakly dominated by the mean of every vector in the sequence.
+     */
+    private double[] referencePoint() {
+        double[] referencePoint = new double[dimensions];
+        Arrays.fill(referencePoint, 2.0 * (dominated + nonDominated));
+        return referencePoint;
     }
 
     private static void plotGraphs(int simulations) {
@@ -324,8 +436,41 @@ public class Experiment {
         }
     }
 
+    /**
+     * The archives an experiment can be run against.
+     */
+    public enum ArchiveType {
+        GUARDIAN {
+            @Override
+            DynamicArchive<GuardianSolution> create(Experiment experiment) {
+                GuardianArchive archive = new GuardianArchive(experiment.dimensions, experiment.comparator, NondominatedPopulation.DuplicateMode.ALLOW_DUPLICATES,
+                    new EuclideanDistance(), combinations.get(experiment.combinationIndex));
+                // comparisons on pool threads would escape the CPU time measured on the repetition's thread, and
+                // re-homing in parallel skips some comparisons the sequential re-homing reports
+                archive.setParallelThreshold(Integer.MAX_VALUE);
+                archive.setParallelRehomeThreshold(Integer.MAX_VALUE);
+                return archive;
+            }
+        },
+        LIST {
+            @Override
+            DynamicArchive<GuardianSolution> create(Experiment experiment) {
+                return new ListArchive(experiment.dimensions, experiment.comparator);
+            }
+        };
+
+        abstract DynamicArchive<GuardianSolution> create(Experiment experiment);
+    }
+
+    /**
+     * Returns the number of guardian assignment combinations experiments can be run with.
+     */
+    static int numberOfCombinations() {
+        return combinations.size();
+    }
+
     @FunctionalInterface
     public interface SimulationRunner {
-        long runSimulation(Experiment simulation, List<AnalyticalSolution> vectorSequence, DynamicArchive<GuardianSolution> population) throws InterruptedException;
+        long runSimulation(Experiment simulation, VectorSequence vectorSequence, DynamicArchive<GuardianSolution> population) throws InterruptedException;
     }
 }
@@ -2,6 +2,11 @@ package projectimplementation.empiralAnalysis;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.io.FileOutputStream;
@@ -13,14 +18,55 @@ public class ExperimentResults {
     private int[] populationSize;
     private int[] eliteArchiveSize;
     private long[] timing;
+    private double[] hypervolume;
     String filename;
     int numSamples;
     int numTimesteps;
     int interval;
     int N;
 
+    /**
+     * The time taken by a single repetition, in milliseconds
+     */
+    long runTime;
+
+    /**
+     * The seed of the experiment, or of a single repetition
+     */
+    long seed;
+
+    /**
+     * The seeds of the repetitions merged into these results, in the order they were merged.
+     */
+    private final List<Long> repetitionSeeds = new ArrayList<>();
+
+    /**
+     * Specifies whether a simulation has been written to the partial files by this run. Results are written to
+     * partial files until every simulation has finished, so finished output is never truncated by a run which
+     * does not complete.
+     */
+    private boolean writing;
+
+    /**
+     * The directory the results, completion marker and checkpoints are written to.
+     */
+    private Path directory = Paths.get(System.getProperty("user.dir"), "src", "test", "resources");
+
+    private static final int CHECKPOINT_VERSION = 2;
+
     public ExperimentResults(String filename, int N, int numTimeSteps, int interval) {
+        this(filename, N, numTimeSteps, interval, false);
+    }
+
+    public ExperimentResults(String filename, int N, int numTimeSteps, int interval, boolean trackHypervolume) {
+        this(N, numTimeSteps, interval, trackHypervolume);
         this.filename = filename;
+    }
+
+    /**
+     * Constructs results which are only held in memory, to be merged into the results written to file.
+     */
+    private ExperimentResults(int N, int numTimeSteps, int interval, boolean trackHypervolume) {
         this.numSamples = 0;
         this.numTimesteps = numTimeSteps;
         this.interval = interval;
@@ -28,15 +74,70 @@ public class ExperimentResults {
         this.eliteArchiveSize = new int[this.numTimesteps+1];
         this.timing = new long[this.numTimesteps+1];
         this.N = N;
+        if (trackHypervolume) {
+            this.hypervolume = new double[this.numTimesteps+1];
+        }
+    }
 
-        try {
-            FileWriter fileWriter = new FileWriter(System.getProperty("user.dir") + "/src/test/resources/" + filename, false);
-            PrintWriter printWriter = new PrintWriter(fileWriter);
-            printWriter.print("");
-            printWriter.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Creates empty results for a single repetition, so repetitions can record data concurrently and be
+     * merged once they have finished.
+     *
+     * @return empty results with the same timesteps as these
+     */
+    public ExperimentResults newRun() {
+        return new ExperimentResults(1, numTimesteps, interval, hypervolume != null);
+    }
+
+    /**
+     * Adds the data recorded by a single repetition to these results.
+     *
+     * @param run the results of the repetition
+     */
+    public void merge(ExperimentResults run) {
+        if (run.numTimesteps != numTimesteps || run.interval != interval) {
+            throw new IllegalArgumentException("Results must have the same timesteps");
         }
+        for (int i = 0; i <= numTimesteps; i++) {
+            dominationComparisons[i] += run.dominationComparisons[i];
+            eliteArchiveSize[i] += run.eliteArchiveSize[i];
+            timing[i] += run.timing[i];
+            if (hypervolume != null && run.hypervolume != null) {
+                hypervolume[i] += run.hypervolume[i];
+            }
+        }
+        numSamples += run.numSamples;
+        repetitionSeeds.add(run.seed);
+    }
+
+    /**
+     * Sets the directory the results are written to, which is {@code src/test/resources} in the working directory
+     * by default.
+     *
+     * @param directory the directory to write to
+     */
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    private Path resource(String filename) {
+        return directory.resolve(filename);
+    }
+
+    private static String partial(String filename) {
+        return filename + ".partial";
+    }
+
+    private String markerFilename() {
+        return filename + ".done";
+    }
+
+    private Path checkpointDirectory() {
+        return resource(filename + ".checkpoint");
+    }
+
+    private String hypervolumeFilename() {
+        return filename.replace(".dat", "_hypervolume.dat");
     }
 
     public void addData(int timestep, long numComparisons, int populationSize, int eliteArchiveSize, long time) {
@@ -48,6 +149,10 @@ public class ExperimentResults {
         this.timing[timestep/interval] += time;
     }
 
+    public void addHypervolume(int timestep, double hypervolume) {
+        this.hypervolume[timestep/interval] += hypervolume;
+    }
+
     public void addSample(){
         this.numSamples += 1;
     }
@@ -58,12 +163,16 @@ public class ExperimentResults {
         populationSize = new int[numTimesteps+1];
         eliteArchiveSize = new int[numTimesteps+1];
         timing = new long[numTimesteps+1];
+        if (hypervolume != null) {
+            hypervolume = new double[numTimesteps+1];
+        }
         numSamples = 0;
     }
 
     public void writeSimulation(long time) {
         try {
-            FileWriter fileWriter = new FileWriter(System.getProperty("user.dir") + "/src/test/resources/" + filename, true);
+            Files.createDirectories(directory);
+            FileWriter fileWriter = new FileWriter(resource(partial(filename)).toFile(), writing);
             PrintWriter printWriter = new PrintWriter(fileWriter);
             for (int i = 0; i <= numTimesteps; i++) {
                 printWriter.println((i*interval) + " " + (dominationComparisons[i]/N) + " " + (i*interval) + " " + (eliteArchiveSize[i]/N) + " " + (timing[i]/N));
@@ -73,5 +182,150 @@ public class ExperimentResults {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        if (hypervolume != null) {
+            writeHypervolume();
+        }
+        writing = true;
+    }
+
+    private void writeHypervolume() {
+        try {
+            FileWriter fileWriter = new FileWriter(resource(partial(hypervolumeFilename())).toFile(), writing);
+            PrintWriter printWriter = new PrintWriter(fileWriter);
+            for (int i = 0; i <= numTimesteps; i++) {
+                printWriter.println((i*interval) + " " + (hypervolume[i]/N));
+            }
+            printWriter.println();
+            printWriter.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns whether every simulation of these results was written by a previous run.
+     *
+     * @return {@code true} if the completion marker exists
+     */
+    public boolean isComplete() {
+        return Files.exists(resource(markerFilename()));
+    }
+
+    /**
+     * Returns whether a results file exists without a completion marker, having been written before markers were
+     * used. It may not be complete, but it is never overwritten.
+     *
+     * @return {@code true} if there are results of unknown completeness
+     */
+    public boolean hasUnmarkedOutput() {
+        return !isComplete() && Files.exists(resource(filename));
+    }
+
+    /**
+     * Moves the partial results into place once every simulation has been written, marks them as complete and
+     * removes the checkpoints of the individual repetitions. The marker records the seed of the experiment and of
+     * every repetition, so any of them can be run again.
+     */
+    public void finish() {
+        try {
+            Files.move(resource(partial(filename)), resource(filename), StandardCopyOption.ATOMIC_MOVE);
+            if (hypervolume != null) {
+                Files.move(resource(partial(hypervolumeFilename())), resource(hypervolumeFilename()), StandardCopyOption.ATOMIC_MOVE);
+            }
+            StringBuilder marker = new StringBuilder();
+            marker.append(N).append(" repetitions of ").append(numTimesteps).append(" timesteps\n");
+            marker.append("seed ").append(seed).append('\n');
+            marker.append("repetition seeds");
+            for (long repetitionSeed : repetitionSeeds) {
+                marker.append(' ').append(repetitionSeed);
+            }
+            marker.append('\n');
+            Files.write(resource(markerFilename()), marker.toString().getBytes(StandardCharsets.UTF_8));
+
+            Path checkpoints = checkpointDirectory();
+            if (Files.isDirectory(checkpoints)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(checkpoints)) {
+                    for (Path file : files) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(checkpoints);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves the data recorded by a single repetition, so it does not need to be run again if the experiment is
+     * resumed.
+     *
+     * @param simulation the index of the simulation
+     * @param repetition the index of the repetition
+     * @param run        the results of the repetition
+     */
+    public void saveRepetition(int simulation, int repetition, ExperimentResults run) {
+        Path checkpoint = checkpointDirectory().resolve("sim" + simulation + "_rep" + repetition + ".bin");
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(checkpoint.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeInt(run.numTimesteps);
+                out.writeInt(run.interval);
+                out.writeBoolean(run.hypervolume != null);
+                out.writeLong(run.runTime);
+                out.writeLong(run.seed);
+                for (int i = 0; i <= run.numTimesteps; i++) {
+                    out.writeLong(run.dominationComparisons[i]);
+                    out.writeInt(run.eliteArchiveSize[i]);
+                    out.writeLong(run.timing[i]);
+                    if (run.hypervolume != null) {
+                        out.writeDouble(run.hypervolume[i]);
+                    }
+                }
+            }
+            Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the data saved by a repetition of a previous run.
+     *
+     * @param simulation the index of the simulation
+     * @param repetition the index of the repetition
+     * @param seed       the seed the repetition must have been run with, or {@code null} to accept any seed
+     * @return the results of the repetition, or {@code null} if it has not been saved or does not match these results
+     */
+    public ExperimentResults loadRepetition(int simulation, int repetition, Long seed) {
+        Path checkpoint = checkpointDirectory().resolve("sim" + simulation + "_rep" + repetition + ".bin");
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            if (in.readInt() != CHECKPOINT_VERSION || in.readInt() != numTimesteps || in.readInt() != interval
+                || in.readBoolean() != (hypervolume != null)) {
+                return null;
+            }
+            ExperimentResults run = newRun();
+            run.runTime = in.readLong();
+            run.seed = in.readLong();
+            if (seed != null && run.seed != seed) {
+                return null; // saved by a run with another seed, so its sequence differs
+            }
+            for (int i = 0; i <= numTimesteps; i++) {
+                run.dominationComparisons[i] = in.readLong();
+                run.eliteArchiveSize[i] = in.readInt();
+                run.timing[i] = in.readLong();
+                if (run.hypervolume != null) {
+                    run.hypervolume[i] = in.readDouble();
+                }
+            }
+            return run;
+        } catch (IOException e) {
+            return null; // an unreadable checkpoint is run again
+        }
     }
 }
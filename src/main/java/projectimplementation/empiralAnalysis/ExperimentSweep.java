@@ -0,0 +1,325 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.empiralAnalysis.Experiment.ArchiveType;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs an experiment for every cell of a grid of parameters. The grid is read from a properties file and/or
+ * {@code key=value} arguments, where later arguments override earlier ones:
+ * <pre>
+ * dimensions=2,3
+ * c=0.5,1.0,1.5
+ * dominated=49872,49488,47952
+ * nonDominated=128,512,2048
+ * combinations=1,2,3
+ * archives=guardian,list
+ * parallelism=32
+ * prefix=linear_results
+ * output=src/test/resources
+ * seed=42
+ * sequenceCache=sequences
+ * </pre>
+ * {@code dominated} and {@code nonDominated} are paired by position; every other key is crossed with the rest.
+ * Cells are scheduled largest first on a work-stealing pool, which the repetitions of each cell are also forked
+ * into, and each cell writes its own results file. A sweep can be rerun after being interrupted: finished cells
+ * are skipped and only the missing repetitions of partially finished cells are run.
+ * <p>
+ * Every cell is seeded with {@code seed}, so cells which only differ in their archive or guardian assignments
+ * are run on the same sequences and edits. Without a seed each cell is given a random one. Either way, the seed
+ * of each cell and of its repetitions is recorded in the cell's completion marker. With a seed, setting
+ * {@code sequenceCache} to a directory stores each sequence there the first time it is generated, and every other
+ * cell or later sweep which draws it replays it instead.
+ * <p>
+ * Setting {@code shards=K} splits the repetitions of every cell across K worker JVMs on this host, each with
+ * {@code parallelism / K} threads and, if {@code workerHeap} is set, that maximum heap size. Workers only
+ * checkpoint their repetitions, after which this process merges the checkpoints into each cell's results file,
+ * running any repetitions a failed worker did not finish. A worker is started with the same arguments plus
+ * {@code shard=k}, and can also be run by hand. If no seed is given, one is chosen and passed to every worker so
+ * their repetitions are seeded consistently.
+ */
+public class ExperimentSweep {
+
+    private final int[] dimensions;
+    private final double[] c;
+    private final int[] dominated;
+    private final int[] nonDominated;
+    private final int[] combinations;
+    private final ArchiveType[] archives;
+    private final int parallelism;
+    private final String prefix;
+    private final Path output;
+    private final int shards;
+    private final int shard;
+    private final String workerHeap;
+    private final Long seed;
+    private final SequenceCache sequenceCache;
+
+    public ExperimentSweep(Properties config) {
+        this.dimensions = parseInts(config.getProperty("dimensions", "2"));
+        this.c = Arrays.stream(split(config.getProperty("c", "1.0"))).mapToDouble(Double::parseDouble).toArray();
+        this.dominated = parseInts(config.getProperty("dominated", "49488"));
+        this.nonDominated = parseInts(config.getProperty("nonDominated", "512"));
+        this.combinations = parseInts(config.getProperty("combinations", "1"));
+        this.archives = Arrays.stream(split(config.getProperty("archives", "guardian")))
+            .map(archive -> ArchiveType.valueOf(archive.toUpperCase(Locale.ROOT))).toArray(ArchiveType[]::new);
+        this.parallelism = Integer.parseInt(config.getProperty("parallelism", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.prefix = config.getProperty("prefix", "linear_results");
+        this.output = config.containsKey("output") ? Paths.get(config.getProperty("output")) : null;
+        this.shards = Integer.parseInt(config.getProperty("shards", "1"));
+        this.shard = Integer.parseInt(config.getProperty("shard", "-1"));
+        this.workerHeap = config.getProperty("workerHeap");
+        this.seed = config.containsKey("seed") ? Long.parseLong(config.getProperty("seed")) : null;
+        this.sequenceCache = config.containsKey("sequenceCache") ? new SequenceCache(Paths.get(config.getProperty("sequenceCache"))) : null;
+
+        if (dominated.length != nonDominated.length) {
+            throw new IllegalArgumentException("dominated and nonDominated must have the same number of values");
+        }
+        for (int combination : combinations) {
+            if (combination < 1 || combination > Experiment.numberOfCombinations()) {
+                throw new IllegalArgumentException("Combinations must be between 1 and " + Experiment.numberOfCombinations());
+            }
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (shards < 1 || shard >= shards) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (shards - 1));
+        }
+    }
+
+    /**
+     * Runs the sweep described by the arguments, each of which is either a properties file or a
+     * {@code key=value} pair.
+     */
+    public static void main(String... args) {
+        try {
+            ExperimentSweep sweep = new ExperimentSweep(parseArguments(args));
+            if (sweep.shard >= 0) {
+                sweep.runShard();
+            } else if (sweep.shards > 1) {
+                sweep.runSharded(args);
+            } else {
+                sweep.run();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read configuration: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Properties parseArguments(String... args) throws IOException {
+        Properties config = new Properties();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator == -1) {
+                try (Reader reader = new FileReader(arg)) {
+                    config.load(reader);
+                }
+            } else {
+                config.setProperty(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Enumerates every cell of the grid, largest first.
+     *
+     * @return the cells of the sweep in the order they are scheduled
+     */
+    public List<Cell> cells() {
+        List<Cell> cells = new ArrayList<>();
+        for (int d : dimensions) {
+            for (double cValue : c) {
+                for (int k = 0; k < dominated.length; k++) {
+                    for (int combination : combinations) {
+                        for (ArchiveType archive : archives) {
+                            cells.add(new Cell(d, cValue, dominated[k], nonDominated[k], combination, archive));
+                        }
+                    }
+                }
+            }
+        }
+        cells.sort(Comparator.comparingLong(Cell::cost).reversed());
+        return cells;
+    }
+
+    /**
+     * Runs every cell, reporting each one as it finishes. A failed cell does not stop the others.
+     */
+    public void run() {
+        List<Cell> cells = cells();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<?>> running = new ArrayList<>(cells.size());
+            for (Cell cell : cells) {
+                running.add(pool.submit(() -> runCell(cell, pool)));
+            }
+            for (int i = 0; i < cells.size(); i++) {
+                try {
+                    running.get(i).get();
+                } catch (ExecutionException e) {
+                    System.err.println("Failed " + cells.get(i).filename() + ": " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a worker JVM for each shard, waits for them all to exit and then merges their checkpoints.
+     *
+     * @param args the arguments this sweep was started with, which are passed on to each worker
+     * @throws InterruptedException if interrupted while waiting for the workers, which are then stopped
+     */
+    public void runSharded(String... args) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (seed == null) {
+            arguments.add("seed=" + new SplittableRandom().nextLong());
+        }
+        List<Process> workers = new ArrayList<>(shards);
+        try {
+            for (int k = 0; k < shards; k++) {
+                List<String> command = new ArrayList<>();
+                command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+                if (workerHeap != null) {
+                    command.add("-Xmx" + workerHeap);
+                }
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(ExperimentSweep.class.getName());
+                command.addAll(arguments);
+                command.add("shard=" + k);
+                command.add("parallelism=" + Math.max(1, parallelism / shards));
+                workers.add(new ProcessBuilder(command).directory(new File(System.getProperty("user.dir"))).inheritIO().start());
+            }
+            for (int k = 0; k < shards; k++) {
+                int exitCode = workers.get(k).waitFor();
+                if (exitCode != 0) {
+                    System.err.println("Shard " + k + " exited with " + exitCode + ", its missing repetitions will be run while merging");
+                }
+            }
+        } finally {
+            workers.forEach(Process::destroy);
+        }
+        new ExperimentSweep(parseArguments(arguments.toArray(new String[0]))).run();
+    }
+
+    /**
+     * Runs this process's shard of the repetitions of every cell, leaving them checkpointed to be merged.
+     */
+    public void runShard() {
+        List<Cell> cells = cells();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<Integer>> running = new ArrayList<>(cells.size());
+            for (int i = 0; i < cells.size(); i++) {
+                Cell cell = cells.get(i);
+                int offset = i % shards;
+                running.add(pool.submit(() -> cell.experiment().runShard(pool, shard, shards, offset)));
+            }
+            int repetitions = 0;
+            for (int i = 0; i < cells.size(); i++) {
+                try {
+                    repetitions += running.get(i).get();
+                } catch (ExecutionException e) {
+                    System.err.println("Shard " + shard + " failed " + cells.get(i).filename() + ": " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            System.out.println("Shard " + shard + " finished " + repetitions + " repetitions");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runCell(Cell cell, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        if (cell.experiment().runSimulations(pool)) {
+            System.out.println("Finished " + cell.filename() + " in " + (System.nanoTime() - start) / 1_000_000_000 + "s");
+        } else {
+            System.out.println("Skipped " + cell.filename());
+        }
+    }
+
+    private static String[] split(String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).filter(value -> !value.isEmpty()).toArray(String[]::new);
+    }
+
+    private static int[] parseInts(String values) {
+        return Arrays.stream(split(values)).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * A single experiment within the sweep.
+     */
+    public class Cell {
+        private final int dimensions;
+        private final double c;
+        private final int dominated;
+        private final int nonDominated;
+        private final int combination;
+        private final ArchiveType archive;
+
+        private Cell(int dimensions, double c, int dominated, int nonDominated, int combination, ArchiveType archive) {
+            this.dimensions = dimensions;
+            this.c = c;
+            this.dominated = dominated;
+            this.nonDominated = nonDominated;
+            this.combination = combination;
+            this.archive = archive;
+        }
+
+        /**
+         * Estimates the relative cost of the cell from the length of its sequence and the number of objectives.
+         * The list archive scans its whole population when solutions are edited, so it is weighted more heavily.
+         */
+        long cost() {
+            long cost = (long) (dominated + nonDominated) * dimensions;
+            return archive == ArchiveType.LIST ? 2 * cost : cost;
+        }
+
+        private Experiment experiment() {
+            Experiment experiment = seed != null
+                ? new Experiment(dimensions, combination - 1, dominated, nonDominated, c, archive, seed, filename())
+                : new Experiment(dimensions, combination - 1, dominated, nonDominated, c, archive, filename());
+            experiment.setSequenceCache(sequenceCache);
+            if (output != null) {
+                experiment.setOutputDirectory(output);
+            }
+            return experiment;
+        }
+
+        /**
+         * Returns the name of the file the cell's results are written to, which keeps the names used before
+         * archives could be swept for the guardian archive.
+         */
+        public String filename() {
+            String archiveName = archive == ArchiveType.GUARDIAN ? "" : "_archive=" + archive.name().toLowerCase(Locale.ROOT);
+            return prefix + "_c" + combination + "_D=" + dimensions + "_NON_DOM=" + nonDominated + "_c=" + c + archiveName + ".dat";
+        }
+    }
+}
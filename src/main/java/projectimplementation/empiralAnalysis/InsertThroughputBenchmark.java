@@ -0,0 +1,53 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.guardianArchive.GuardianSolution;
+import projectimplementation.guardianArchive.LockFreeGuardianArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures how many solutions per second a LockFreeGuardianArchive accepts from 1, 4, 16 and 64 threads, and how
+ * quickly its committer adds them to the guardian trees. Candidates are uniformly random, so almost all of them
+ * are dominated.
+ */
+public class InsertThroughputBenchmark {
+
+    private static final int DIMENSIONS = 2;
+    private static final int INSERTS = 50000;
+    private static final int[] THREADS = {1, 4, 16, 64};
+
+    public static void main(String... args) throws InterruptedException {
+        System.out.println("threads inserts/sec commits/sec");
+        for (int threads : THREADS) {
+            runBenchmark(threads);
+        }
+    }
+
+    private static void runBenchmark(int threads) throws InterruptedException {
+        try (LockFreeGuardianArchive archive = new LockFreeGuardianArchive(DIMENSIONS)) {
+            List<Thread> inserters = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                inserters.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int j = 0; j < INSERTS / threads; j++) {
+                        archive.insert(new GuardianSolution(random.doubles().limit(DIMENSIONS).toArray()));
+                    }
+                }));
+            }
+
+            long start = System.nanoTime();
+            inserters.forEach(Thread::start);
+            for (Thread inserter : inserters) {
+                inserter.join();
+            }
+            long inserted = System.nanoTime();
+            archive.flush();
+            long committed = System.nanoTime();
+
+            int total = INSERTS / threads * threads;
+            System.out.println(threads + " " + (long) (total / ((inserted - start) / 1e9)) + " " + (long) (total / ((committed - start) / 1e9)));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.guardianArchive.ConcurrentGuardianArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how the read throughput of a ConcurrentGuardianArchive scales with the number of reader threads
+ * while a single writer keeps adding and editing solutions.
+ */
+public class ReadScalingBenchmark {
+
+    private static final int DIMENSIONS = 2;
+    private static final int POPULATION = 50000;
+    private static final long DURATION = TimeUnit.SECONDS.toMillis(5);
+
+    public static void main(String... args) throws InterruptedException {
+        int maxReaders = Runtime.getRuntime().availableProcessors();
+        System.out.println("readers reads/sec writes/sec");
+        for (int readers = 1; readers <= maxReaders; readers *= 2) {
+            runBenchmark(readers);
+        }
+    }
+
+    private static void runBenchmark(int readers) throws InterruptedException {
+        ConcurrentGuardianArchive archive = new ConcurrentGuardianArchive(DIMENSIONS);
+        List<GuardianSolution> solutions = new ArrayList<>(POPULATION);
+        for (int i = 0; i < POPULATION; i++) {
+            GuardianSolution solution = randomSolution();
+            archive.add(solution);
+            solutions.add(solution);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+
+        Thread writer = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                GuardianSolution solution = solutions.get(random.nextInt(solutions.size()));
+                solution.setObjectives(random.doubles().limit(DIMENSIONS).toArray());
+                writes.increment();
+            }
+        });
+
+        List<Thread> readerThreads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            readerThreads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    archive.paretoSize();
+                    archive.size();
+                    archive.contains(solutions.get(random.nextInt(solutions.size())));
+                    archive.randomParetoMember(random);
+                    count += 4;
+                }
+                reads.add(count);
+            }));
+        }
+
+        writer.start();
+        readerThreads.forEach(Thread::start);
+        Thread.sleep(DURATION);
+        running.set(false);
+        writer.join();
+        for (Thread reader : readerThreads) {
+            reader.join();
+        }
+
+        double seconds = DURATION / 1000.0;
+        System.out.println(readers + " " + (long) (reads.sum() / seconds) + " " + (long) (writes.sum() / seconds));
+    }
+
+    private static GuardianSolution randomSolution() {
+        return new GuardianSolution(ThreadLocalRandom.current().doubles().limit(DIMENSIONS).toArray());
+    }
+}
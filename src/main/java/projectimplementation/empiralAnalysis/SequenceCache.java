@@ -0,0 +1,183 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.empiralAnalysis.AnalyticalDistribution.SequenceGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the sequences generated by analytical distributions on disk, so a sequence is generated once and replayed
+ * by every experiment which draws it: every combination and archive type of a sweep with a fixed seed, and later
+ * runs of the sweep. Each sequence is keyed by the dimensions, the numbers of dominated and non-dominated vectors,
+ * c, the seed of the distribution, how many sequences the distribution generated before it and the version of the
+ * generator, which is also recorded in the file and checked when it is loaded.
+ * <p>
+ * A sequence is stored as one byte per vector recording whether it is non-dominated, from which its mean is
+ * recalculated, followed by the objectives of every vector. The file is memory-mapped and shared by every replay
+ * in this process, each of which creates new solutions, so replays can be edited independently.
+ */
+public class SequenceCache {
+
+    private static final int MAGIC = 0x53455143; // "SEQC"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private final Path directory;
+
+    /**
+     * The sequences which have been mapped by this process.
+     */
+    private final Map<Path, ByteBuffer> mapped;
+
+    public SequenceCache(Path directory) {
+        this.directory = directory;
+        this.mapped = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts the next sequence of a distribution, replaying it from the cache if it has been generated before and
+     * otherwise generating and storing it first. The distribution is left in the same state as if the sequence
+     * had been generated, so the samples drawn afterwards are the same either way.
+     *
+     * @param distribution the distribution to draw the sequence from
+     * @param dominated    the number of dominated vectors
+     * @param nonDominated the number of non-dominated vectors
+     * @param c            scales the probability of a vector being non-dominated
+     * @return the vectors of the sequence in the order they are added
+     */
+    public VectorSequence open(AnalyticalDistribution distribution, int dominated, int nonDominated, double c) {
+        SequenceGenerator generator = distribution.streamSequence(dominated, nonDominated, c);
+        String name = generator.cacheName();
+        int dimensions = distribution.getCovariances().getRowDimension();
+        long bytes = HEADER_BYTES + (long) generator.length() * (1 + (long) dimensions * Double.BYTES);
+        if (name == null || bytes > Integer.MAX_VALUE) {
+            return generator; // cannot be keyed or mapped
+        }
+        Path file = directory.resolve(name + ".seq");
+        ByteBuffer buffer = mapped.computeIfAbsent(file, path -> load(path, generator, dimensions));
+        return new Replay(buffer, dimensions, generator.length());
+    }
+
+    /**
+     * Maps a stored sequence, first storing it if it does not exist.
+     */
+    private static ByteBuffer load(Path file, SequenceGenerator generator, int dimensions) {
+        try {
+            if (!Files.exists(file)) {
+                store(file, generator, dimensions);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != dimensions
+                    || buffer.getInt(12) != generator.length() || buffer.getInt(16) != SequenceGenerator.GENERATOR_VERSION) {
+                    throw new IOException("Sequence " + file + " does not match its name");
+                }
+                return buffer;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes every vector of a sequence to a temporary file which is then moved into place, so another process
+     * storing the same sequence at the same time can only replace it with an identical file.
+     */
+    private static void store(Path file, SequenceGenerator generator, int dimensions) throws IOException {
+        Files.createDirectories(file.getParent());
+        int length = generator.length();
+        byte[] nonDominated = new byte[length];
+        Path objectives = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".objectives");
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(objectives)))) {
+                for (int t = 0; t < length; t++) {
+                    AnalyticalSolution vector = generator.next();
+                    nonDominated[t] = (byte) (vector.getMean() == 0 ? 1 : 0);
+                    for (int i = 0; i < dimensions; i++) {
+                        out.writeDouble(vector.getObjective(i));
+                    }
+                }
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dimensions);
+                out.writeInt(length);
+                out.writeInt(SequenceGenerator.GENERATOR_VERSION);
+                out.write(nonDominated);
+                Files.copy(objectives, out);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                if (!Files.exists(file)) {
+                    throw e;
+                } // stored by another process, and may be mapped so that it cannot be replaced
+            }
+        } finally {
+            Files.deleteIfExists(objectives);
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Creates new solutions from a mapped sequence as they are needed.
+     */
+    private static class Replay implements VectorSequence {
+        private final ByteBuffer buffer;
+        private final int dimensions;
+        private final int length;
+        private int t;
+
+        private Replay(ByteBuffer buffer, int dimensions, int length) {
+            this.buffer = buffer;
+            this.dimensions = dimensions;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int generated() {
+            return t;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return t < length;
+        }
+
+        /**
+         * Reads the next vector with absolute gets, which do not move the position of the shared buffer.
+         */
+        @Override
+        public AnalyticalSolution next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            boolean nonDominated = buffer.get(HEADER_BYTES + t) == 1;
+            int offset = HEADER_BYTES + length + t * dimensions * Double.BYTES;
+            double[] objectives = new double[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                objectives[i] = buffer.getDouble(offset + i * Double.BYTES);
+            }
+            t++;
+            return new AnalyticalSolution(objectives, AnalyticalDistribution.mean(nonDominated ? 0 : 1, length, t));
+        }
+    }
+}
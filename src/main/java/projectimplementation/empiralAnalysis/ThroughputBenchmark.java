@@ -0,0 +1,308 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.guardianArchive.ConcurrentGuardianArchive;
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.GuardianArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+import projectimplementation.guardianArchive.ListArchive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Drives an archive with a workload for a fixed wall-clock time and reports the operations per second in each
+ * interval, next to the number of members added so far, to show how throughput changes as the archive grows.
+ * It is configured like {@link ExperimentSweep}, with a properties file and/or {@code key=value} arguments:
+ * <pre>
+ * dimensions=2
+ * archive=guardian|list|concurrent
+ * threads=1
+ * seconds=60
+ * interval=1
+ * dominated=9990000
+ * nonDominated=10000
+ * c=1.0
+ * adds=30
+ * edits=70
+ * target=pareto
+ * noise=0.01
+ * burst=1
+ * seed=42
+ * </pre>
+ * Each thread adds its own share of the {@code dominated} and {@code nonDominated} vectors, the first threads
+ * taking one more of each when they do not divide evenly, and stops early once it has applied every operation of
+ * its workload. If a thread fails the run stops, and the failure is rethrown once every thread has finished. Instead of {@code noise}, {@code edit=mean} or {@code edit=sample}
+ * choose how edited members change. Several threads need the concurrent archive, and may edit the same
+ * member at once.
+ * <p>
+ * The time of each interval includes generating the vectors and choosing the members to edit as well as the
+ * archive's operations, whose mean latency is reported separately.
+ */
+public class ThroughputBenchmark {
+
+    private final int dimensions;
+    private final String archive;
+    private final int threads;
+    private final long duration;
+    private final long interval;
+    private final int dominated;
+    private final int nonDominated;
+    private final double c;
+    private final Workload workload;
+    private final long seed;
+
+    public ThroughputBenchmark(Properties config) {
+        this.dimensions = Integer.parseInt(config.getProperty("dimensions", "2"));
+        this.archive = config.getProperty("archive", "guardian").toLowerCase(Locale.ROOT);
+        this.threads = Integer.parseInt(config.getProperty("threads", "1"));
+        this.duration = nanos(config.getProperty("seconds", "60"));
+        this.interval = nanos(config.getProperty("interval", "1"));
+        this.dominated = Integer.parseInt(config.getProperty("dominated", "9990000"));
+        this.nonDominated = Integer.parseInt(config.getProperty("nonDominated", "10000"));
+        this.c = Double.parseDouble(config.getProperty("c", "1.0"));
+        this.seed = config.containsKey("seed") ? Long.parseLong(config.getProperty("seed")) : new SplittableRandom().nextLong();
+
+        Workload.Builder builder = Workload.builder()
+            .mix(Double.parseDouble(config.getProperty("adds", "1")), Double.parseDouble(config.getProperty("edits", "1")))
+            .target(Workload.Target.valueOf(config.getProperty("target", "random").toUpperCase(Locale.ROOT) + "_MEMBER"))
+            .burst(Integer.parseInt(config.getProperty("burst", "1")));
+        if (config.containsKey("noise")) {
+            builder.noise(Double.parseDouble(config.getProperty("noise")));
+        } else {
+            builder.edit(Workload.Edit.valueOf(config.getProperty("edit", "mean").toUpperCase(Locale.ROOT)));
+        }
+        this.workload = builder.build();
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        if (threads > 1 && !archive.equals("concurrent")) {
+            throw new IllegalArgumentException("Only the concurrent archive can be driven by several threads");
+        }
+        if (duration <= 0 || interval <= 0) {
+            throw new IllegalArgumentException("The duration and interval must be positive");
+        }
+        if ((long) dominated + nonDominated < threads) {
+            throw new IllegalArgumentException("Every thread must add at least one vector");
+        }
+        createArchive(archive, dimensions); // rejects unknown archives before running
+    }
+
+    private static long nanos(String seconds) {
+        return (long) (Double.parseDouble(seconds) * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Creates the archive driven by a run.
+     *
+     * @return a new, empty archive of the configured type
+     */
+    protected DynamicArchive<GuardianSolution> createArchive() {
+        return createArchive(archive, dimensions);
+    }
+
+    private static DynamicArchive<GuardianSolution> createArchive(String archive, int dimensions) {
+        switch (archive) {
+            case "guardian":
+                return new GuardianArchive(dimensions);
+            case "list":
+                return new ListArchive(dimensions);
+            case "concurrent":
+                return new ConcurrentGuardianArchive(dimensions);
+            default:
+                throw new IllegalArgumentException("Unknown archive " + archive);
+        }
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        ThroughputBenchmark benchmark;
+        try {
+            benchmark = new ThroughputBenchmark(ExperimentSweep.parseArguments(args));
+        } catch (IOException e) {
+            System.err.println("Could not read configuration: " + e.getMessage());
+            return;
+        }
+        System.out.println("# " + benchmark.workload + " seed=" + benchmark.seed);
+        System.out.println("seconds members operations/sec adds/sec edits/sec meanLatencyNanos");
+        benchmark.run(System.out::println);
+    }
+
+    /**
+     * Returns the number of vectors a thread adds out of a total shared between every thread.
+     */
+    private int share(int total, int thread) {
+        return total / threads + (thread < total % threads ? 1 : 0);
+    }
+
+    /**
+     * Runs the benchmark, reporting each interval as it finishes and the last, partial, interval at the end.
+     *
+     * @param reporter receives the measurements of each interval
+     * @return the measurements of every interval
+     * @throws InterruptedException  if interrupted while waiting for the threads
+     * @throws IllegalStateException if a thread failed, with the first failure as its cause
+     */
+    public List<Sample> run(Consumer<Sample> reporter) throws InterruptedException {
+        DynamicArchive<GuardianSolution> population = createArchive();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder adds = new LongAdder();
+        LongAdder edits = new LongAdder();
+        LongAdder busy = new LongAdder();
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            AnalyticalDistribution distribution = new AnalyticalDistribution(dimensions, seeds.nextLong());
+            Random random = new Random(seeds.nextLong());
+            int threadDominated = share(dominated, t);
+            int threadNonDominated = share(nonDominated, t);
+            workers.add(new Thread(() -> {
+                try {
+                    VectorSequence sequence = distribution.streamSequence(threadDominated, threadNonDominated, c);
+                    Workload.Driver driver = workload.driver(sequence, population, random, distribution, System::nanoTime);
+                    while (running.get() && driver.hasNext()) {
+                        busy.add(driver.step());
+                        if (driver.lastOperation() == Workload.Operation.ADD) {
+                            adds.increment();
+                        } else {
+                            edits.increment();
+                        }
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                    running.set(false); // stops the other threads
+                }
+            }, "throughput-" + t));
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        long lastAdds = 0;
+        long lastEdits = 0;
+        long lastBusy = 0;
+        long lastTime = start;
+        boolean finished = false;
+        while (!finished) {
+            long next = Math.min(lastTime + interval, start + duration);
+            for (long now = System.nanoTime(); now < next && anyAlive(workers); now = System.nanoTime()) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(next - now, TimeUnit.MILLISECONDS.toNanos(10)));
+            }
+            long now = System.nanoTime();
+            finished = now - start >= duration || !anyAlive(workers);
+            if (finished) {
+                running.set(false);
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+                now = System.nanoTime();
+            }
+
+            long totalAdds = adds.sum();
+            long totalEdits = edits.sum();
+            long totalBusy = busy.sum();
+            Sample sample = new Sample((now - start) / 1e9, totalAdds, totalAdds - lastAdds, totalEdits - lastEdits,
+                totalBusy - lastBusy, now - lastTime);
+            samples.add(sample);
+            reporter.accept(sample);
+            lastAdds = totalAdds;
+            lastEdits = totalEdits;
+            lastBusy = totalBusy;
+            lastTime = now;
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("A benchmark thread failed", failure.get());
+        }
+        return samples;
+    }
+
+    private static boolean anyAlive(List<Thread> workers) {
+        for (Thread worker : workers) {
+            if (worker.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The operations applied during one interval of a run.
+     */
+    public static class Sample {
+        private final double seconds;
+        private final long members;
+        private final long adds;
+        private final long edits;
+        private final long busyNanos;
+        private final long nanos;
+
+        private Sample(double seconds, long members, long adds, long edits, long busyNanos, long nanos) {
+            this.seconds = seconds;
+            this.members = members;
+            this.adds = adds;
+            this.edits = edits;
+            this.busyNanos = busyNanos;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the time since the run started at the end of the interval.
+         *
+         * @return the elapsed time in seconds
+         */
+        public double getSeconds() {
+            return seconds;
+        }
+
+        /**
+         * Returns the number of members added by the end of the interval.
+         *
+         * @return the number of adds since the run started
+         */
+        public long getMembers() {
+            return members;
+        }
+
+        public long getAdds() {
+            return adds;
+        }
+
+        public long getEdits() {
+            return edits;
+        }
+
+        public double getOperationsPerSecond() {
+            return perSecond(adds + edits);
+        }
+
+        /**
+         * Returns the mean time the archive took for each operation of the interval, across every thread.
+         *
+         * @return the mean latency in nanoseconds, or 0 if no operations were applied
+         */
+        public long getMeanLatency() {
+            return adds + edits == 0 ? 0 : busyNanos / (adds + edits);
+        }
+
+        private double perSecond(long count) {
+            return nanos == 0 ? 0 : count * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.3f %d %.0f %.0f %.0f %d", seconds, members, getOperationsPerSecond(),
+                perSecond(adds), perSecond(edits), getMeanLatency());
+        }
+    }
+}
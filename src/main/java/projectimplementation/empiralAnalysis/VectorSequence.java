@@ -0,0 +1,23 @@
+package projectimplementation.empiralAnalysis;
+
+import java.util.Iterator;
+
+/**
+ * A sequence of vectors which are added to an archive one at a time by a simulation.
+ */
+public interface VectorSequence extends Iterator<AnalyticalSolution> {
+
+    /**
+     * Returns the number of vectors in the whole sequence.
+     *
+     * @return the length of the sequence
+     */
+    int length();
+
+    /**
+     * Returns the number of vectors produced so far.
+     *
+     * @return the index of the next vector
+     */
+    int generated();
+}
@@ -0,0 +1,379 @@
+package projectimplementation.empiralAnalysis;
+
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * A mix of operations applied to an archive as the vectors of a sequence are added to it: how many edits are made
+ * for each vector added, which members are edited, how their objectives change and how the operations are grouped.
+ * For example, a mix where 70% of operations edit Pareto members with a little noise is
+ * <pre>{@code
+ * Workload.builder().mix(30, 70).target(Workload.Target.PARETO_MEMBER).noise(0.01).build()
+ * }</pre>
+ * Every workload is run by the same {@link Driver}, which only times the archive's operations.
+ */
+public class Workload {
+
+    /**
+     * The operations a workload applies to an archive.
+     */
+    public enum Operation {
+        ADD,
+        EDIT
+    }
+
+    /**
+     * How the member to edit is chosen.
+     */
+    public enum Target {
+
+        /**
+         * Any vector which has been added, chosen uniformly.
+         */
+        RANDOM_MEMBER,
+
+        /**
+         * A member of the Pareto set, chosen uniformly.
+         */
+        PARETO_MEMBER
+    }
+
+    /**
+     * How the objectives of an edited member change.
+     */
+    public enum Edit {
+
+        /**
+         * The objectives are set to the mean of the vector.
+         */
+        MEAN,
+
+        /**
+         * The objectives are set to the average of the vector's samples, after drawing one more from the distribution.
+         */
+        SAMPLE,
+
+        /**
+         * Independent Gaussian noise of a given standard deviation is added to each objective.
+         */
+        NOISE
+    }
+
+    private final double addWeight;
+    private final double editWeight;
+    private final Target target;
+    private final Edit edit;
+    private final double noise;
+    private final int burst;
+    private final int skipLast;
+
+    private Workload(Builder builder) {
+        this.addWeight = builder.adds;
+        this.editWeight = builder.edits;
+        this.target = builder.target;
+        this.edit = builder.edit;
+        this.noise = builder.noise;
+        this.burst = builder.burst;
+        this.skipLast = builder.skipLast;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getEditsPerAdd() {
+        return editWeight / addWeight;
+    }
+
+    public Target getTarget() {
+        return target;
+    }
+
+    public Edit getEdit() {
+        return edit;
+    }
+
+    /**
+     * Returns the number of operations the workload applies for a sequence.
+     *
+     * @param length the number of vectors in the sequence
+     * @return the number of adds and edits
+     */
+    public int operations(int length) {
+        int adds = Math.max(0, length - skipLast);
+        return adds + editsAfter(adds);
+    }
+
+    /**
+     * The number of edits made once the given number of vectors have been added, spread evenly between the adds.
+     */
+    private int editsAfter(int added) {
+        return (int) Math.floor(added * editWeight / addWeight);
+    }
+
+    /**
+     * Starts applying the workload to an archive.
+     *
+     * @param sequence     the vectors to add
+     * @param archive      the archive to apply the operations to
+     * @param random       chooses the members to edit and the noise added to them
+     * @param distribution draws the samples of {@link Edit#SAMPLE} edits
+     * @param clock        times each operation, in nanoseconds
+     * @return a driver which applies one operation at a time
+     */
+    public Driver driver(VectorSequence sequence, DynamicArchive<GuardianSolution> archive, Random random,
+                         AnalyticalDistribution distribution, LongSupplier clock) {
+        return new Driver(sequence, archive, random, distribution, clock);
+    }
+
+    @Override
+    public String toString() {
+        return "Workload[editsPerAdd=" + getEditsPerAdd() + ", target=" + target + ", edit=" + edit
+            + (edit == Edit.NOISE ? ", noise=" + noise : "") + ", burst=" + burst
+            + (skipLast > 0 ? ", skipLast=" + skipLast : "") + "]";
+    }
+
+    /**
+     * Applies the operations of a workload one at a time. After each add the edits due so far are made, or after
+     * every {@code burst} adds when operations are grouped, so it allocates nothing beyond the vectors added.
+     */
+    public class Driver {
+        private final VectorSequence sequence;
+        private final DynamicArchive<GuardianSolution> archive;
+        private final Random random;
+        private final AnalyticalDistribution distribution;
+        private final LongSupplier clock;
+        private final double[] buffer;
+
+        /**
+         * The number of vectors of the sequence which are added.
+         */
+        private final int length;
+
+        /**
+         * The vectors added so far, which are only kept when edits target any member.
+         */
+        private final List<AnalyticalSolution> added;
+        private int adds;
+        private int edits;
+        private Operation last;
+
+        private Driver(VectorSequence sequence, DynamicArchive<GuardianSolution> archive, Random random,
+                       AnalyticalDistribution distribution, LongSupplier clock) {
+            this.sequence = sequence;
+            this.archive = archive;
+            this.random = random;
+            this.distribution = distribution;
+            this.clock = clock;
+            this.buffer = new double[archive.NUMBER_OF_OBJECTIVES];
+            this.length = Math.max(0, sequence.length() - skipLast);
+            this.added = target == Target.RANDOM_MEMBER ? new ArrayList<>(sequence.length()) : null;
+        }
+
+        /**
+         * Finds if there are operations left, which is until every vector has been added and edited after.
+         *
+         * @return {@code true} if {@link #step()} applies another operation
+         */
+        public boolean hasNext() {
+            return addsLeft() || edits < editsAfter(adds);
+        }
+
+        private boolean addsLeft() {
+            return adds < length && sequence.hasNext();
+        }
+
+        /**
+         * Applies the next operation.
+         *
+         * @return the time the archive took to apply it
+         * @throws NoSuchElementException if the workload has finished
+         */
+        public long step() {
+            if (editDue()) {
+                return edit();
+            }
+            if (!addsLeft()) {
+                throw new NoSuchElementException();
+            }
+            return add();
+        }
+
+        /**
+         * Edits are due once a burst of adds has finished, or the sequence has.
+         */
+        private boolean editDue() {
+            return edits < editsAfter(adds) && (adds % burst == 0 || !addsLeft());
+        }
+
+        private long add() {
+            AnalyticalSolution vector = sequence.next();
+            if (added != null) {
+                added.add(vector);
+            }
+            long start = clock.getAsLong();
+            archive.add(vector);
+            long time = clock.getAsLong() - start;
+            adds++;
+            last = Operation.ADD;
+            return time;
+        }
+
+        private long edit() {
+            AnalyticalSolution vector = target == Target.RANDOM_MEMBER
+                ? added.get(random.nextInt(added.size()))
+                : (AnalyticalSolution) archive.randomParetoMember(random);
+
+            switch (edit) {
+                case MEAN:
+                case SAMPLE:
+                    // the archive is given a copy, as other threads may update the samples of the same member
+                    synchronized (vector) {
+                        if (edit == Edit.MEAN) {
+                            vector.setSampleToMean();
+                        } else {
+                            distribution.sample(vector.getMean(), buffer);
+                            vector.addSample(buffer);
+                        }
+                        System.arraycopy(vector.getSample(), 0, buffer, 0, buffer.length);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < buffer.length; i++) {
+                        buffer[i] = vector.getObjective(i) + noise * random.nextGaussian();
+                    }
+                    break;
+            }
+
+            long start = clock.getAsLong();
+            archive.editObjectives(vector, buffer);
+            long time = clock.getAsLong() - start;
+            edits++;
+            last = Operation.EDIT;
+            return time;
+        }
+
+        /**
+         * Returns the kind of the operation applied by the last step.
+         *
+         * @return the last operation, or {@code null} before the first step
+         */
+        public Operation lastOperation() {
+            return last;
+        }
+
+        public int getAdds() {
+            return adds;
+        }
+
+        public int getEdits() {
+            return edits;
+        }
+    }
+
+    /**
+     * Composes a workload. By default one member chosen uniformly is set to its mean after each add.
+     */
+    public static class Builder {
+        private double adds = 1;
+        private double edits = 1;
+        private Target target = Target.RANDOM_MEMBER;
+        private Edit edit = Edit.MEAN;
+        private double noise;
+        private int burst = 1;
+        private int skipLast;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the proportions of adds and edits, so {@code mix(30, 70)} makes seven edits for every three adds.
+         * Archives cannot remove members, so the mix has no removals.
+         *
+         * @param adds  the weight of adds, which must be positive
+         * @param edits the weight of edits, which must not be negative
+         * @return this builder
+         */
+        public Builder mix(double adds, double edits) {
+            if (!(adds > 0) || !(edits >= 0) || Double.isInfinite(adds) || Double.isInfinite(edits)) {
+                throw new IllegalArgumentException("Adds must be positive and edits must not be negative");
+            }
+            this.adds = adds;
+            this.edits = edits;
+            return this;
+        }
+
+        public Builder target(Target target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Sets how edited members change. Use {@link #noise(double)} for {@link Edit#NOISE}.
+         *
+         * @param edit how the objectives of edited members change
+         * @return this builder
+         */
+        public Builder edit(Edit edit) {
+            if (edit == Edit.NOISE) {
+                throw new IllegalArgumentException("Noise edits need a standard deviation");
+            }
+            this.edit = edit;
+            return this;
+        }
+
+        /**
+         * Makes edits add independent Gaussian noise to each objective of the edited member.
+         *
+         * @param standardDeviation the standard deviation of the noise
+         * @return this builder
+         */
+        public Builder noise(double standardDeviation) {
+            if (!(standardDeviation >= 0)) {
+                throw new IllegalArgumentException("The standard deviation must not be negative");
+            }
+            this.edit = Edit.NOISE;
+            this.noise = standardDeviation;
+            return this;
+        }
+
+        /**
+         * Groups the operations into bursts, making the given number of adds back to back followed by the edits
+         * due for them. A burst of one spreads the edits evenly between the adds.
+         *
+         * @param adds the number of adds in each burst
+         * @return this builder
+         */
+        public Builder burst(int adds) {
+            if (adds < 1) {
+                throw new IllegalArgumentException("A burst must have at least one add");
+            }
+            this.burst = adds;
+            return this;
+        }
+
+        /**
+         * Leaves the last vectors of the sequence out, so they are never added or edited.
+         *
+         * @param vectors the number of vectors at the end of the sequence which are not added
+         * @return this builder
+         */
+        public Builder skipLast(int vectors) {
+            if (vectors < 0) {
+                throw new IllegalArgumentException("The number of vectors skipped must not be negative");
+            }
+            this.skipLast = vectors;
+            return this;
+        }
+
+        public Workload build() {
+            return new Workload(this);
+        }
+    }
+}
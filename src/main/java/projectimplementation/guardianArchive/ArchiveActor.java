@@ -0,0 +1,366 @@
+package projectimplementation.guardianArchive;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * A front-end which lets many threads modify an archive that is only ever touched by a single owner thread.
+ * Adds, edits and queries are placed on a bounded queue and the owner applies them in batches, in the order they
+ * were queued, so the archive itself needs no synchronisation. Within a batch, repeated edits to the same solution
+ * are coalesced into the last one.
+ * <p>
+ * Solutions added through the actor must only be edited through {@link #offerEdit(DynamicSolution, double[])} or
+ * {@link #submitEdit(DynamicSolution, double[])}, as setting their objectives directly would notify the archive
+ * from the calling thread.
+ *
+ * @param <T> the type of solution held by the archive
+ */
+public class ArchiveActor<T extends DynamicSolution> implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * How long the owner waits for a request before checking if it has been closed.
+     */
+    private static final long POLL_MILLIS = 10;
+
+    private final DynamicArchive<T> archive;
+    private final BlockingQueue<Request<T>> requests;
+    private final int batchSize;
+
+    /**
+     * Counts the requests without a future which threw an exception.
+     */
+    private final LongAdder failedRequests;
+
+    /**
+     * Counts the edits which were replaced by a later edit to the same solution.
+     */
+    private final LongAdder coalescedEdits;
+
+    private volatile boolean running;
+
+    /**
+     * Held for reading while a request is checked and queued, and for writing while the actor is closed, so no
+     * request can be queued once the owner has been told to stop.
+     */
+    private final ReadWriteLock submissions;
+
+    private final Thread owner;
+
+    public ArchiveActor(DynamicArchive<T> archive) {
+        this(archive, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an actor which owns the given archive.
+     *
+     * @param archive   the archive to apply requests to, which should no longer be used directly
+     * @param capacity  the number of requests which may be queued before producers are refused or made to wait
+     * @param batchSize the largest number of requests the owner applies at once
+     */
+    public ArchiveActor(DynamicArchive<T> archive, int capacity, int batchSize) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.archive = archive;
+        this.requests = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.failedRequests = new LongAdder();
+        this.coalescedEdits = new LongAdder();
+        this.running = true;
+        this.submissions = new ReentrantReadWriteLock();
+        this.owner = new Thread(this::run, "archive-actor");
+        this.owner.setDaemon(true);
+        this.owner.start();
+    }
+
+    /**
+     * Queues a solution to be added without waiting.
+     *
+     * @param solution the solution to be added
+     * @return {@code true} if the request was queued, {@code false} if the queue is full
+     */
+    public boolean offerAdd(T solution) {
+        return offer(new Request<>(Request.Kind.ADD, solution, null, null, null));
+    }
+
+    /**
+     * Queues an edit to a solution's objectives without waiting.
+     *
+     * @param solution      the solution to edit
+     * @param newObjectives the values of the new objectives, which are copied
+     * @return {@code true} if the request was queued, {@code false} if the queue is full
+     */
+    public boolean offerEdit(T solution, double[] newObjectives) {
+        return offer(new Request<>(Request.Kind.EDIT, solution, newObjectives.clone(), null, null));
+    }
+
+    /**
+     * Queues a solution to be added, waiting for space in the queue if necessary.
+     *
+     * @param solution the solution to be added
+     * @return a future which completes with the result of {@link DynamicArchive#add(DynamicSolution)}
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    public CompletableFuture<Boolean> submitAdd(T solution) throws InterruptedException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        put(new Request<>(Request.Kind.ADD, solution, null, null, future));
+        return future.thenApply(Boolean.class::cast);
+    }
+
+    /**
+     * Queues an edit to a solution's objectives, waiting for space in the queue if necessary.
+     *
+     * @param solution      the solution to edit
+     * @param newObjectives the values of the new objectives, which are copied
+     * @return a future which completes with whether the solution is in the Pareto set once the edit, or the
+     * edit it was coalesced into, has been applied
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    public CompletableFuture<Boolean> submitEdit(T solution, double[] newObjectives) throws InterruptedException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        put(new Request<>(Request.Kind.EDIT, solution, newObjectives.clone(), null, future));
+        return future.thenApply(Boolean.class::cast);
+    }
+
+    /**
+     * Queues a read of the archive, which runs on the owner thread after every request queued before it.
+     *
+     * @param query the function to apply to the archive
+     * @param <R>   the type of the result
+     * @return a future which completes with the result of the query
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> query(Function<? super DynamicArchive<T>, ? extends R> query) throws InterruptedException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        put(new Request<>(Request.Kind.QUERY, null, null, (Function<DynamicArchive<T>, Object>) query, future));
+        return future.thenApply(result -> (R) result);
+    }
+
+    private boolean offer(Request<T> request) {
+        Lock lock = submissions.readLock();
+        lock.lock();
+        try {
+            checkRunning();
+            return requests.offer(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Request<T> request) throws InterruptedException {
+        Lock lock = submissions.readLock();
+        lock.lockInterruptibly();
+        try {
+            checkRunning();
+            requests.put(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException("The actor has been closed");
+        }
+    }
+
+    /**
+     * Applies queued requests in batches until closed, then applies whatever remains.
+     */
+    private void run() {
+        List<Request<T>> batch = new ArrayList<>(batchSize);
+        while (running || !requests.isEmpty()) {
+            try {
+                Request<T> first = requests.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            requests.drainTo(batch, batchSize - 1);
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Applies a batch of requests in order, skipping every edit which is followed by another edit to the same
+     * solution before the next query. The futures of skipped edits complete with the result of the edit which
+     * replaced them.
+     */
+    private void apply(List<Request<T>> batch) {
+        Map<T, Request<T>> lastEdits = new IdentityHashMap<>();
+        for (Request<T> request : batch) {
+            if (request.kind == Request.Kind.EDIT) {
+                Request<T> previous = lastEdits.put(request.solution, request);
+                if (previous != null) {
+                    previous.superseded = true;
+                    request.coalesced = previous;
+                }
+            } else if (request.kind == Request.Kind.QUERY) {
+                lastEdits.clear(); // a query must see every edit queued before it
+            }
+        }
+
+        for (Request<T> request : batch) {
+            if (request.superseded) {
+                coalescedEdits.increment();
+                continue;
+            }
+            Object result;
+            try {
+                switch (request.kind) {
+                    case ADD:
+                        result = archive.add(request.solution);
+                        break;
+                    case EDIT:
+                        archive.editObjectives(request.solution, request.objectives);
+                        result = archive.pareto(request.solution);
+                        break;
+                    default:
+                        result = request.query.apply(archive);
+                        break;
+                }
+            } catch (RuntimeException e) {
+                fail(request, e);
+                continue;
+            }
+            complete(request, result);
+        }
+    }
+
+    /**
+     * Completes the future of a request and of every edit coalesced into it.
+     */
+    private void complete(Request<T> request, Object result) {
+        for (Request<T> r = request; r != null; r = r.coalesced) {
+            if (r.future != null) {
+                r.future.complete(result);
+            }
+        }
+    }
+
+    private void fail(Request<T> request, RuntimeException e) {
+        for (Request<T> r = request; r != null; r = r.coalesced) {
+            if (r.future != null) {
+                r.future.completeExceptionally(e);
+            } else {
+                failedRequests.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of requests queued but not yet taken by the owner.
+     *
+     * @return the number of waiting requests
+     */
+    public int queuedRequests() {
+        return requests.size();
+    }
+
+    /**
+     * Returns the number of requests without a future which threw an exception when applied.
+     *
+     * @return the number of failed requests
+     */
+    public long getFailedRequests() {
+        return failedRequests.sum();
+    }
+
+    /**
+     * Returns the number of edits which were never applied because a later edit to the same solution was in the
+     * same batch.
+     *
+     * @return the number of coalesced edits
+     */
+    public long getCoalescedEdits() {
+        return coalescedEdits.sum();
+    }
+
+    /**
+     * Returns the archive owned by this actor. It must not be used until the actor has been closed.
+     *
+     * @return the archive requests are applied to
+     */
+    public DynamicArchive<T> getArchive() {
+        return archive;
+    }
+
+    /**
+     * Refuses further requests, applies every request already queued and stops the owner thread. Producers waiting
+     * for space in the queue are allowed to queue their requests first. If interrupted, it still waits for the
+     * owner to finish and then restores the interrupt status.
+     */
+    @Override
+    public void close() {
+        Lock lock = submissions.writeLock();
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (owner.isAlive()) {
+            try {
+                owner.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A request queued for the owner thread.
+     */
+    private static class Request<T extends DynamicSolution> {
+
+        private enum Kind {ADD, EDIT, QUERY}
+
+        private final Kind kind;
+        private final T solution;
+        private final double[] objectives;
+        private final Function<DynamicArchive<T>, Object> query;
+        private final CompletableFuture<Object> future;
+
+        /**
+         * The previous edit to the same solution in the batch, which was replaced by this one.
+         */
+        private Request<T> coalesced;
+
+        /**
+         * Specifies whether a later edit to the same solution replaced this one.
+         */
+        private boolean superseded;
+
+        private Request(Kind kind, T solution, double[] objectives, Function<DynamicArchive<T>, Object> query,
+                        CompletableFuture<Object> future) {
+            this.kind = kind;
+            this.solution = solution;
+            this.objectives = objectives;
+            this.query = query;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package projectimplementation.guardianArchive;
+
+/**
+ * An immutable record of a change made to an archive, delivered to subscribers of its
+ * {@link ArchiveEventPublisher}.
+ *
+ * @param <T> the type of solution stored in the archive
+ */
+public class ArchiveEvent<T extends DynamicSolution> {
+
+    /**
+     * The kinds of change an archive reports.
+     */
+    public enum Type {
+
+        /**
+         * A solution was added to the archive.
+         */
+        ADDED,
+
+        /**
+         * The objectives of a solution in the archive were edited.
+         */
+        EDITED,
+
+        /**
+         * A solution joined the Pareto set.
+         */
+        ENTERED_FRONT,
+
+        /**
+         * A solution left the Pareto set.
+         */
+        LEFT_FRONT,
+
+        /**
+         * A solution was assigned a new guardian.
+         */
+        REPARENTED
+    }
+
+    private final Type type;
+    private final T solution;
+    private final double[] objectives;
+    private final T guardian;
+
+    /**
+     * Constructs an event, taking a snapshot of the solution's objectives.
+     *
+     * @param type     the kind of change
+     * @param solution the solution which changed
+     * @param guardian the new guardian of the solution for {@link Type#REPARENTED} events, {@code null} otherwise
+     */
+    public ArchiveEvent(Type type, T solution, T guardian) {
+        this.type = type;
+        this.solution = solution;
+        this.objectives = solution.getObjectives();
+        this.guardian = guardian;
+    }
+
+    /**
+     * Returns the kind of change.
+     *
+     * @return the type of this event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the solution which changed. Its objectives may have changed again since the event was created.
+     *
+     * @return the solution this event is about
+     */
+    public T getSolution() {
+        return solution;
+    }
+
+    /**
+     * Returns the objectives of the solution at the time of the event.
+     *
+     * @return a copy of the objectives when the event was created
+     */
+    public double[] getObjectives() {
+        return objectives.clone();
+    }
+
+    /**
+     * Returns one objective of the solution at the time of the event, without copying the objectives.
+     *
+     * @param index the index of the objective
+     * @return the value of the objective when the event was created
+     */
+    public double getObjective(int index) {
+        return objectives[index];
+    }
+
+    /**
+     * Returns the new guardian of a re-parented solution.
+     *
+     * @return the guardian of the solution, or {@code null} if it now has none or this is not a
+     * {@link Type#REPARENTED} event
+     */
+    public T getGuardian() {
+        return guardian;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + solution;
+    }
+}
@@ -0,0 +1,183 @@
+package projectimplementation.guardianArchive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the events of an archive to subscribers running on other threads. Each subscriber has a bounded
+ * buffer and receives events as it requests them. When a subscriber's buffer is full the event is either
+ * dropped for that subscriber, so the archive never waits, or the archive waits until there is space.
+ *
+ * @param <T> the type of solution stored in the archive
+ */
+public class ArchiveEventPublisher<T extends DynamicSolution> implements Flow.Publisher<ArchiveEvent<T>>, AutoCloseable {
+
+    private final SubmissionPublisher<ArchiveEvent<T>> publisher;
+
+    /**
+     * Specifies whether events are dropped rather than waiting for a full buffer to drain.
+     */
+    private final boolean dropWhenFull;
+
+    /**
+     * The number of events dropped across all subscribers.
+     */
+    private final LongAdder dropped;
+
+    /**
+     * The number of subscribers which have not cancelled, completed or failed. It is kept here rather than asking
+     * the {@link SubmissionPublisher}, which takes a lock, as archives check it on every operation.
+     */
+    private final AtomicInteger subscribers;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a publisher which delivers events using the common pool and drops events when
+     * a subscriber falls behind.
+     */
+    public ArchiveEventPublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), true);
+    }
+
+    /**
+     * Constructs a publisher.
+     *
+     * @param executor       the executor used to deliver events to subscribers
+     * @param bufferCapacity the maximum number of events buffered for each subscriber
+     * @param dropWhenFull   {@code true} to drop events for a subscriber whose buffer is full,
+     *                       {@code false} to wait for space
+     */
+    public ArchiveEventPublisher(Executor executor, int bufferCapacity, boolean dropWhenFull) {
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.dropWhenFull = dropWhenFull;
+        this.dropped = new LongAdder();
+        this.subscribers = new AtomicInteger();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ArchiveEvent<T>> subscriber) {
+        CountedSubscriber counted = new CountedSubscriber(subscriber);
+        subscribers.incrementAndGet();
+        publisher.subscribe(counted);
+        // a duplicate may be refused without any signal, depending on the JDK
+        if (publisher.getSubscribers().stream().noneMatch(s -> s == counted)) {
+            counted.uncount();
+        }
+    }
+
+    /**
+     * Finds if any subscriber is attached, so archives can skip creating events nobody receives.
+     *
+     * @return {@code true} if there is at least one subscriber, {@code false} otherwise
+     */
+    public boolean hasSubscribers() {
+        return !closed && subscribers.get() > 0;
+    }
+
+    /**
+     * Delivers an event to every subscriber.
+     *
+     * @param event the event to deliver
+     */
+    void publish(ArchiveEvent<T> event) {
+        if (dropWhenFull) {
+            publisher.offer(event, (subscriber, droppedEvent) -> {
+                dropped.increment();
+                return false;
+            });
+        } else {
+            publisher.submit(event);
+        }
+    }
+
+    /**
+     * Returns how many events were not delivered because a subscriber's buffer was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Completes every subscriber once it has received the events already published.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        publisher.close();
+    }
+
+    /**
+     * Passes the signals of the publisher to a subscriber, and no longer counts the subscriber once it cancels its
+     * subscription or receives its last signal. It is equal to any other wrapper of the same subscriber, so
+     * subscribing a subscriber twice is still detected by the {@link SubmissionPublisher}.
+     */
+    private class CountedSubscriber implements Flow.Subscriber<ArchiveEvent<T>>, Flow.Subscription {
+        private final Flow.Subscriber<? super ArchiveEvent<T>> subscriber;
+        private final AtomicBoolean counted;
+        private Flow.Subscription subscription;
+
+        private CountedSubscriber(Flow.Subscriber<? super ArchiveEvent<T>> subscriber) {
+            this.subscriber = subscriber;
+            this.counted = new AtomicBoolean(true);
+        }
+
+        private void uncount() {
+            if (counted.compareAndSet(true, false)) {
+                subscribers.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ArchiveEvent<T> event) {
+            subscriber.onNext(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            uncount();
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            uncount();
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            uncount();
+            subscription.cancel();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArchiveEventPublisher.CountedSubscriber
+                && ((ArchiveEventPublisher<?>.CountedSubscriber) o).subscriber.equals(subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return subscriber.hashCode();
+        }
+    }
+}
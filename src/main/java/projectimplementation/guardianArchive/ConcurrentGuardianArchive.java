@@ -0,0 +1,355 @@
+package projectimplementation.guardianArchive;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.comparator.DominanceComparator;
+import org.moeaframework.core.comparator.ParetoDominanceComparator;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread safe GuardianArchive. Adds and objective edits, which may be triggered from any thread by
+ * {@link DynamicSolution#setObjectives(double[])}, are serialised by a write lock. Each solution added to the archive
+ * holds the write lock while its objectives are written as well as while the edit is applied. After each one an immutable
+ * snapshot is published, from which {@link #paretoSet()}, {@link #paretoSize()}, {@link #size()},
+ * {@link #isEmpty()}, {@link #contains(GuardianSolution)} and {@link #randomParetoMember(Random)} are answered
+ * without taking any lock. The Pareto set of a snapshot is only copied when it is first read after it changed, which
+ * takes the read lock once. Queries which need the guardian trees take the read lock.
+ * <p>
+ * Otherwise an add running at the same time could compare against a solution whose objectives had been written
+ * but whose edit had not yet been applied, and make its guardian trees inconsistent. As a solution only has one
+ * lock, it should not be added to more than one concurrent archive.
+ */
+public class ConcurrentGuardianArchive extends GuardianArchive {
+
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * The state of the archive after the last completed operation.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Every solution which has been added to the archive.
+     */
+    private final Set<GuardianSolution> memberSet;
+
+    /**
+     * Specifies whether the Pareto set has changed since the last snapshot.
+     */
+    private boolean paretoChanged;
+
+    public ConcurrentGuardianArchive(int numberOfObjectives) {
+        this(numberOfObjectives, new GuardianAssignment[]{GuardianAssignment.FIRST, GuardianAssignment.FIRST,
+            GuardianAssignment.FIRST, GuardianAssignment.FIRST, GuardianAssignment.FIRST, GuardianAssignment.FIRST});
+    }
+
+    public ConcurrentGuardianArchive(int numberOfObjectives, GuardianAssignment[] options) {
+        this(numberOfObjectives, new ParetoDominanceComparator(), NondominatedPopulation.DuplicateMode.ALLOW_DUPLICATES, new ManhattanDistance(), options);
+    }
+
+    public ConcurrentGuardianArchive(int numberOfObjectives, DominanceComparator comparator, NondominatedPopulation.DuplicateMode duplicateMode,
+                                     DistanceMetric distanceMetric, GuardianAssignment[] options) {
+        super(numberOfObjectives, comparator, duplicateMode, distanceMetric, options);
+        this.lock = new ReentrantReadWriteLock();
+        this.memberSet = ConcurrentHashMap.newKeySet();
+        this.snapshot = new Snapshot(Collections.emptyList(), 0, 0);
+    }
+
+    /**
+     * Finds if the current thread is part way through modifying the archive, in which case it must see the
+     * live state rather than the last snapshot.
+     */
+    private boolean writing() {
+        return lock.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * Publishes the state of the archive once an operation has completed. If the Pareto set changed it is left to
+     * be copied by the first read. Must be called while holding the write lock.
+     */
+    private void publishSnapshot() {
+        List<GuardianSolution> pareto = paretoChanged ? null : snapshot.paretoSet;
+        paretoChanged = false;
+        snapshot = new Snapshot(pareto, super.paretoSize(), super.size());
+    }
+
+    /**
+     * Returns the Pareto set of the last snapshot, copying it from the archive if it has changed since it was
+     * last read. The read lock keeps the snapshot from being replaced while it is copied.
+     */
+    private List<GuardianSolution> snapshotParetoSet() {
+        List<GuardianSolution> pareto = snapshot.paretoSet;
+        if (pareto != null) {
+            return pareto;
+        }
+        lock.readLock().lock();
+        try {
+            Snapshot current = snapshot;
+            synchronized (current) {
+                if (current.paretoSet == null) {
+                    List<GuardianSolution> copy = new ArrayList<>(current.paretoSize);
+                    super.forEachPareto(copy::add);
+                    current.paretoSet = Collections.unmodifiableList(copy);
+                }
+                return current.paretoSet;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean add(GuardianSolution solution) {
+        lock.writeLock().lock();
+        try {
+            boolean added = super.add(solution);
+            if (added) {
+                memberSet.add(solution);
+                solution.setObjectivesLock(lock.writeLock());
+            }
+            publishSnapshot();
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        lock.writeLock().lock();
+        try {
+            super.propertyChange(evt);
+            publishSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            super.clear();
+            for (GuardianSolution solution : memberSet) {
+                solution.setObjectivesLock(null);
+            }
+            memberSet.clear();
+            publishSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void paretoAdded(GuardianSolution solution) {
+        paretoChanged = true;
+        super.paretoAdded(solution);
+    }
+
+    @Override
+    protected void paretoRemoved(GuardianSolution solution) {
+        paretoChanged = true;
+        super.paretoRemoved(solution);
+    }
+
+    @Override
+    protected void paretoCleared() {
+        paretoChanged = true;
+        super.paretoCleared();
+    }
+
+    /**
+     * Returns the Pareto set as of the last completed operation.
+     *
+     * @return an unmodifiable snapshot of the Pareto set
+     */
+    @Override
+    public List<GuardianSolution> paretoSet() {
+        if (writing()) {
+            return super.paretoSet();
+        }
+        return snapshotParetoSet();
+    }
+
+    @Override
+    public int paretoSize() {
+        if (writing()) {
+            return super.paretoSize();
+        }
+        return snapshot.paretoSize;
+    }
+
+    @Override
+    public int size() {
+        if (writing()) {
+            return super.size();
+        }
+        return snapshot.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (writing()) {
+            return super.isEmpty();
+        }
+        return snapshot.paretoSize == 0;
+    }
+
+    @Override
+    public boolean contains(GuardianSolution solution) {
+        if (writing()) {
+            return super.contains(solution);
+        }
+        return memberSet.contains(solution);
+    }
+
+    @Override
+    public GuardianSolution randomParetoMember(Random random) {
+        if (writing()) {
+            return super.randomParetoMember(random);
+        }
+        List<GuardianSolution> pareto = snapshotParetoSet();
+        if (pareto.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return pareto.get(random.nextInt(pareto.size()));
+    }
+
+    @Override
+    public void forEachPareto(Consumer<? super GuardianSolution> action) {
+        paretoSet().forEach(action);
+    }
+
+    @Override
+    public boolean pareto(GuardianSolution solution) {
+        lock.readLock().lock();
+        try {
+            return super.pareto(solution);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<GuardianSolution> getPopulation() {
+        lock.readLock().lock();
+        try {
+            return super.getPopulation();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public GuardianSolution randomMember(Random random) {
+        lock.readLock().lock();
+        try {
+            return super.randomMember(random);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a copy of the members, as the population may change while iterating.
+     */
+    @Override
+    public Iterator<GuardianSolution> iterator() {
+        return copyMembers().iterator();
+    }
+
+    /**
+     * Returns a spliterator over a copy of the members, as the population may change while iterating.
+     */
+    @Override
+    public Spliterator<GuardianSolution> spliterator() {
+        return copyMembers().spliterator();
+    }
+
+    private List<GuardianSolution> copyMembers() {
+        lock.readLock().lock();
+        try {
+            List<GuardianSolution> copy = new ArrayList<>(size());
+            super.iterator().forEachRemaining(copy::add);
+            return Collections.unmodifiableList(copy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void setReferencePoint(double[] referencePoint) {
+        lock.writeLock().lock();
+        try {
+            super.setReferencePoint(referencePoint);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the write lock, as the hypervolume applies the changes buffered since it was last requested.
+     */
+    @Override
+    public double hypervolume() {
+        lock.writeLock().lock();
+        try {
+            return super.hypervolume();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the write lock, as extreme objectives whose member has left are recalculated on request.
+     */
+    @Override
+    public double[] getIdealPoint() {
+        lock.writeLock().lock();
+        try {
+            return super.getIdealPoint();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the write lock, as extreme objectives whose member has left are recalculated on request.
+     */
+    @Override
+    public double[] getNadirPoint() {
+        lock.writeLock().lock();
+        try {
+            return super.getNadirPoint();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The state of the archive published after each operation. Its Pareto set is {@code null} until first read
+     * after a change, and is never altered once copied.
+     */
+    private static class Snapshot {
+        private volatile List<GuardianSolution> paretoSet;
+        private final int paretoSize;
+        private final int size;
+
+        private Snapshot(List<GuardianSolution> paretoSet, int paretoSize, int size) {
+            this.paretoSet = paretoSet;
+            this.paretoSize = paretoSize;
+            this.size = size;
+        }
+    }
+}
@@ -6,8 +6,19 @@ import org.moeaframework.core.comparator.ParetoDominanceComparator;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.moeaframework.core.Settings.EPS;
 
@@ -15,7 +26,7 @@ import static org.moeaframework.core.Settings.EPS;
  * Provides the methods required for a non elitist unbounded dynamic archive.
  * @param <T> Only store solutions which extend DynamicSolution.
  */
-public abstract class DynamicArchive<T extends DynamicSolution> implements PropertyChangeListener {
+public abstract class DynamicArchive<T extends DynamicSolution> implements PropertyChangeListener, Iterable<T> {
 
     /**
      * The dominance comparator used by this archive.
@@ -37,6 +48,39 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
      */
     public final int NUMBER_OF_OBJECTIVES;
 
+    /**
+     * Tracks the hypervolume of the Pareto set, or {@code null} if it is not being tracked.
+     */
+    protected HypervolumeIndicator hypervolume;
+
+    /**
+     * Tracks the ideal and nadir points of the Pareto set.
+     */
+    protected final ExtremePoints extremePoints;
+
+    /**
+     * The listeners notified when an operation changes the Pareto set.
+     */
+    private final List<ParetoChangeListener<T>> paretoChangeListeners = new ArrayList<>();
+
+    /**
+     * The net changes made to the Pareto set by the current operation, mapping each solution to
+     * {@code true} if it joined the set and {@code false} if it left.
+     */
+    private final Map<T, Boolean> paretoChanges = new LinkedHashMap<>();
+
+    /**
+     * The solution whose edit is being applied, and whether it has joined or left the Pareto set during the edit,
+     * in which case its extremes and hypervolume contribution have already been updated.
+     */
+    private T edited;
+    private boolean editedUpdated;
+
+    /**
+     * Publishes the events of this archive, or {@code null} until it is first requested.
+     */
+    private volatile ArchiveEventPublisher<T> eventPublisher;
+
     public DynamicArchive(int numberOfObjectives) {
         this(numberOfObjectives, new ParetoDominanceComparator());
     }
@@ -71,6 +115,10 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
         this.duplicateMode = duplicateMode;
         this.comparator = comparator;
         this.distanceMetric = distanceMetric;
+        this.extremePoints = new ExtremePoints(numberOfObjectives);
+        if (distanceMetric instanceof NormalizedDistanceMetric) {
+            ((NormalizedDistanceMetric) distanceMetric).setExtremePoints(extremePoints);
+        }
     }
 
     /**
@@ -93,7 +141,229 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
     }
 
     public void propertyChange(PropertyChangeEvent evt) {
-        objectivesChanged((T) evt.getNewValue());
+        T solution = (T) evt.getNewValue();
+        edited = solution;
+        editedUpdated = false;
+        try {
+            objectivesChanged(solution);
+        } finally {
+            edited = null;
+        }
+        if (!editedUpdated) { // still in, or still out of, the front
+            boolean pareto = pareto(solution);
+            extremePoints.update(solution, pareto);
+            if (hypervolume != null) {
+                hypervolume.update(solution, pareto);
+            }
+        }
+        if (publishingEvents()) {
+            eventPublisher.publish(new ArchiveEvent<>(ArchiveEvent.Type.EDITED, solution, null));
+        }
+        publishParetoChanges();
+    }
+
+    /**
+     * Returns the publisher of this archive's events, creating one which drops events for subscribers
+     * that fall behind if none has been set. Within each operation, re-parenting events are published
+     * first, then the added or edited event, then the solutions which entered and left the Pareto set.
+     *
+     * @return the publisher of this archive's events
+     */
+    public ArchiveEventPublisher<T> getEventPublisher() {
+        if (eventPublisher == null) {
+            synchronized (this) {
+                if (eventPublisher == null) {
+                    eventPublisher = new ArchiveEventPublisher<>();
+                }
+            }
+        }
+        return eventPublisher;
+    }
+
+    /**
+     * Sets the publisher of this archive's events.
+     *
+     * @param eventPublisher the publisher of this archive's events
+     */
+    public void setEventPublisher(ArchiveEventPublisher<T> eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Finds if this archive has an event publisher, without creating one.
+     *
+     * @return {@code true} if a publisher has been set or created, {@code false} otherwise
+     */
+    public boolean hasEventPublisher() {
+        return eventPublisher != null;
+    }
+
+    /**
+     * Finds if anybody is subscribed to this archive's events.
+     *
+     * @return {@code true} if events should be published, {@code false} otherwise
+     */
+    private boolean publishingEvents() {
+        ArchiveEventPublisher<T> publisher = eventPublisher;
+        return publisher != null && publisher.hasSubscribers();
+    }
+
+    /**
+     * Called once a solution has been added to the archive. Must be called at the end of every add operation.
+     *
+     * @param solution the solution which was added
+     */
+    protected void solutionAdded(T solution) {
+        if (publishingEvents()) {
+            eventPublisher.publish(new ArchiveEvent<>(ArchiveEvent.Type.ADDED, solution, null));
+        }
+        publishParetoChanges();
+    }
+
+    /**
+     * Called whenever a solution is assigned a new guardian.
+     *
+     * @param solution the solution which was re-parented
+     * @param guardian the new guardian of the solution, or {@code null} if it has none
+     */
+    protected void guardianChanged(T solution, T guardian) {
+        if (publishingEvents()) {
+            eventPublisher.publish(new ArchiveEvent<>(ArchiveEvent.Type.REPARENTED, solution, guardian));
+        }
+    }
+
+    /**
+     * Registers a listener to be told which solutions join and leave the Pareto set on each operation.
+     *
+     * @param listener the listener to register
+     */
+    public void addParetoChangeListener(ParetoChangeListener<T> listener) {
+        paretoChangeListeners.add(listener);
+    }
+
+    /**
+     * Stops a listener being told about changes to the Pareto set.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeParetoChangeListener(ParetoChangeListener<T> listener) {
+        paretoChangeListeners.remove(listener);
+    }
+
+    /**
+     * Records a change to the Pareto set, cancelling out a solution which leaves and rejoins
+     * within the same operation.
+     *
+     * @param solution the solution which changed
+     * @param entered  {@code true} if the solution joined the set, {@code false} if it left
+     */
+    private void recordParetoChange(T solution, boolean entered) {
+        Boolean previous = paretoChanges.get(solution);
+        if (previous != null && previous != entered) {
+            paretoChanges.remove(solution);
+        } else {
+            paretoChanges.put(solution, entered);
+        }
+    }
+
+    /**
+     * Tells the listeners and subscribers how the Pareto set changed during the operation which has just finished.
+     */
+    private void publishParetoChanges() {
+        if (paretoChanges.isEmpty()) {
+            return;
+        }
+        List<T> entered = new ArrayList<>();
+        List<T> left = new ArrayList<>();
+        for (Map.Entry<T, Boolean> change : paretoChanges.entrySet()) {
+            if (change.getValue()) {
+                entered.add(change.getKey());
+            } else {
+                left.add(change.getKey());
+            }
+        }
+        paretoChanges.clear();
+        for (ParetoChangeListener<T> listener : paretoChangeListeners) {
+            listener.paretoChanged(entered, left);
+        }
+        if (publishingEvents()) {
+            for (T solution : entered) {
+                eventPublisher.publish(new ArchiveEvent<>(ArchiveEvent.Type.ENTERED_FRONT, solution, null));
+            }
+            for (T solution : left) {
+                eventPublisher.publish(new ArchiveEvent<>(ArchiveEvent.Type.LEFT_FRONT, solution, null));
+            }
+        }
+    }
+
+    /**
+     * Called whenever a solution joins the Pareto set.
+     *
+     * @param solution the solution which became non-dominated
+     */
+    protected void paretoAdded(T solution) {
+        editedUpdated |= solution == edited;
+        extremePoints.update(solution, true);
+        if (hypervolume != null) {
+            hypervolume.update(solution, true);
+        }
+        if (!paretoChangeListeners.isEmpty() || publishingEvents()) {
+            recordParetoChange(solution, true);
+        }
+    }
+
+    /**
+     * Called whenever a solution leaves the Pareto set.
+     *
+     * @param solution the solution which became dominated
+     */
+    protected void paretoRemoved(T solution) {
+        editedUpdated |= solution == edited;
+        extremePoints.update(solution, false);
+        if (hypervolume != null) {
+            hypervolume.update(solution, false);
+        }
+        if (!paretoChangeListeners.isEmpty() || publishingEvents()) {
+            recordParetoChange(solution, false);
+        }
+    }
+
+    /**
+     * Called whenever the Pareto set is emptied.
+     */
+    protected void paretoCleared() {
+        extremePoints.clear();
+        paretoChanges.clear();
+        if (hypervolume != null) {
+            hypervolume.clear();
+        }
+    }
+
+    /**
+     * Starts tracking the hypervolume of the Pareto set against the given reference point.
+     *
+     * @param referencePoint the point against which the hypervolume is measured
+     */
+    public void setReferencePoint(double[] referencePoint) {
+        if (referencePoint.length != NUMBER_OF_OBJECTIVES) {
+            throw new IllegalArgumentException("Reference point must have one value per objective");
+        }
+        hypervolume = new HypervolumeIndicator(referencePoint);
+        for (T solution : paretoSet()) {
+            hypervolume.update(solution, true);
+        }
+    }
+
+    /**
+     * Returns the hypervolume of the current approximation of the Pareto-optimal front.
+     *
+     * @return the hypervolume dominated by the Pareto set and bounded by the reference point
+     */
+    public double hypervolume() {
+        if (hypervolume == null) {
+            throw new IllegalStateException("No reference point has been set");
+        }
+        return hypervolume.getValue();
     }
 
     /**
@@ -137,6 +407,55 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
     public abstract List<T> getPopulation();
 
 
+    /**
+     * Returns an iterator over every member of the population. Implementations should traverse the
+     * population in place; the population must not be modified while iterating.
+     *
+     * @return an iterator over all the solutions in the population
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.unmodifiableList(getPopulation()).iterator();
+    }
+
+    /**
+     * Returns a spliterator over every member of the population. Implementations should traverse the
+     * population in place and split evenly, so parallel streams scale with the size of the population.
+     *
+     * @return a spliterator over all the solutions in the population
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Collections.unmodifiableList(getPopulation()).spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of every member of the population.
+     *
+     * @return a stream of all the solutions in the population
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of every member of the population.
+     *
+     * @return a parallel stream of all the solutions in the population
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Performs the given action on each member of the current approximation of the Pareto-optimal front.
+     *
+     * @param action the action to perform on each non-dominated solution
+     */
+    public void forEachPareto(Consumer<? super T> action) {
+        paretoSet().forEach(action);
+    }
+
     /**
      * Gives the current approximation of the Pareto-optimal front
      *
@@ -153,6 +472,36 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
      */
     public abstract boolean pareto(T solution);
 
+    /**
+     * Chooses a member of the current approximation of the Pareto-optimal front uniformly at random.
+     *
+     * @param random the source of randomness
+     * @return a random non-dominated solution
+     * @throws NoSuchElementException if the population is empty
+     */
+    public T randomParetoMember(Random random) {
+        List<T> paretoSet = paretoSet();
+        if (paretoSet.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return paretoSet.get(random.nextInt(paretoSet.size()));
+    }
+
+    /**
+     * Chooses a member of the population uniformly at random.
+     *
+     * @param random the source of randomness
+     * @return a random solution
+     * @throws NoSuchElementException if the population is empty
+     */
+    public T randomMember(Random random) {
+        List<T> population = getPopulation();
+        if (population.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return population.get(random.nextInt(population.size()));
+    }
+
     /**
      * Finds the size of the current approximation of the Pareto-optimal front
      *
@@ -165,6 +514,24 @@ public abstract class DynamicArchive<T extends DynamicSolution> implements Prope
      */
     public abstract void clear();
 
+    /**
+     * Returns the best value of each objective across the Pareto set.
+     *
+     * @return the ideal point of the Pareto set
+     */
+    public double[] getIdealPoint() {
+        return extremePoints.getIdeal();
+    }
+
+    /**
+     * Returns the worst value of each objective across the Pareto set.
+     *
+     * @return the nadir point of the Pareto set
+     */
+    public double[] getNadirPoint() {
+        return extremePoints.getNadir();
+    }
+
     /**
      * Returns the dominance comparator used by the population.
      *
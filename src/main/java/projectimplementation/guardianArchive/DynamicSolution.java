@@ -6,6 +6,7 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 /**
  * A dynamic solution to an optimization problem which allows
@@ -18,6 +19,12 @@ public abstract class DynamicSolution extends Solution {
      */
     protected PropertyChangeSupport changes;
 
+    /**
+     * A lock held while the objectives are written and listeners are notified, which is set by an archive that
+     * must not see the objectives change part way through one of its own operations.
+     */
+    private volatile Lock objectivesLock;
+
     /**
      * Constructs a dynamic solution with the specified number of variables and
      * objectives with no constraints.
@@ -130,6 +137,16 @@ public abstract class DynamicSolution extends Solution {
         return changes.getPropertyChangeListeners();
     }
 
+    /**
+     * Sets the lock to hold while the objectives are written and listeners are notified, so that an archive can
+     * serialise edits with its other operations. A solution can only have one lock.
+     *
+     * @param lock the lock to hold during each edit
+     */
+    void setObjectivesLock(Lock lock) {
+        this.objectivesLock = lock;
+    }
+
     /**
      * Set the objective and fire property change provided this class contains a listener
      *
@@ -138,11 +155,21 @@ public abstract class DynamicSolution extends Solution {
      */
     @Override
     public void setObjective(int index, double objective) {
-        double oldObjective = this.getObjective(index);
-        super.setObjective(index, objective);
-        if (changes != null) {
-            if (changes.getPropertyChangeListeners().length != 0) {
-                changes.firePropertyChange("objectives", oldObjective, this);
+        Lock lock = objectivesLock;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            double oldObjective = this.getObjective(index);
+            super.setObjective(index, objective);
+            if (changes != null) {
+                if (changes.getPropertyChangeListeners().length != 0) {
+                    changes.firePropertyChange("objectives", oldObjective, this);
+                }
+            }
+        } finally {
+            if (lock != null) {
+                lock.unlock();
             }
         }
     }
@@ -154,11 +181,21 @@ public abstract class DynamicSolution extends Solution {
      */
     @Override
     public void setObjectives(double[] objectives) {
-        double[] oldObjectives = this.getObjectives();
-        super.setObjectives(objectives);
-        if (changes != null) {
-            if (changes.getPropertyChangeListeners().length != 0) {
-                changes.firePropertyChange("objectives", oldObjectives, this);
+        Lock lock = objectivesLock;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            double[] oldObjectives = this.getObjectives();
+            super.setObjectives(objectives);
+            if (changes != null) {
+                if (changes.getPropertyChangeListeners().length != 0) {
+                    changes.firePropertyChange("objectives", oldObjectives, this);
+                }
+            }
+        } finally {
+            if (lock != null) {
+                lock.unlock();
             }
         }
     }
@@ -0,0 +1,154 @@
+package projectimplementation.guardianArchive;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Maintains the ideal and nadir points of the Pareto set of an archive as solutions join and leave it.
+ * When an extreme member leaves, only the objectives it was extreme in are recalculated, and only once
+ * they are next requested.
+ */
+public class ExtremePoints {
+
+    /**
+     * The objectives of each front member when it joined the front or was last edited.
+     */
+    private final Map<DynamicSolution, double[]> members;
+
+    /**
+     * The best value of each objective across the front.
+     */
+    private final double[] ideal;
+
+    /**
+     * The worst value of each objective across the front.
+     */
+    private final double[] nadir;
+
+    /**
+     * Marks the objectives whose extreme member has left the front.
+     */
+    private final boolean[] stale;
+
+    private boolean anyStale;
+
+    /**
+     * Constructs the extreme points of an empty front.
+     *
+     * @param numberOfObjectives the number of objectives of each solution
+     */
+    public ExtremePoints(int numberOfObjectives) {
+        this.members = new IdentityHashMap<>();
+        this.ideal = new double[numberOfObjectives];
+        this.nadir = new double[numberOfObjectives];
+        this.stale = new boolean[numberOfObjectives];
+        clear();
+    }
+
+    /**
+     * Records that a solution has joined, left or moved within the front.
+     *
+     * @param solution the solution which changed
+     * @param pareto   {@code true} if the solution is now in the front, {@code false} otherwise
+     */
+    public void update(DynamicSolution solution, boolean pareto) {
+        double[] objectives = pareto ? solution.getObjectives() : null;
+        double[] old = pareto ? members.put(solution, objectives) : members.remove(solution);
+
+        if (old != null) {
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] <= ideal[i] || old[i] >= nadir[i]) {
+                    stale[i] = true;
+                    anyStale = true;
+                }
+            }
+        }
+        if (objectives != null) {
+            for (int i = 0; i < objectives.length; i++) {
+                if (!stale[i]) {
+                    ideal[i] = Math.min(ideal[i], objectives[i]);
+                    nadir[i] = Math.max(nadir[i], objectives[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every member of the front.
+     */
+    public void clear() {
+        members.clear();
+        Arrays.fill(ideal, Double.POSITIVE_INFINITY);
+        Arrays.fill(nadir, Double.NEGATIVE_INFINITY);
+        Arrays.fill(stale, false);
+        anyStale = false;
+    }
+
+    /**
+     * Returns the ideal point, which is infinite while the front is empty.
+     *
+     * @return a copy of the best value of each objective across the front
+     */
+    public double[] getIdeal() {
+        refresh();
+        return ideal.clone();
+    }
+
+    /**
+     * Returns the nadir point, which is negatively infinite while the front is empty.
+     *
+     * @return a copy of the worst value of each objective across the front
+     */
+    public double[] getNadir() {
+        refresh();
+        return nadir.clone();
+    }
+
+    /**
+     * Returns the best value of a single objective across the front.
+     *
+     * @param index the index of the objective
+     * @return the ideal value of the objective
+     */
+    public double getIdeal(int index) {
+        refresh();
+        return ideal[index];
+    }
+
+    /**
+     * Returns the worst value of a single objective across the front.
+     *
+     * @param index the index of the objective
+     * @return the nadir value of the objective
+     */
+    public double getNadir(int index) {
+        refresh();
+        return nadir[index];
+    }
+
+    /**
+     * Recalculates the objectives whose extreme member has left the front.
+     */
+    private void refresh() {
+        if (!anyStale) {
+            return;
+        }
+        for (int i = 0; i < stale.length; i++) {
+            if (stale[i]) {
+                ideal[i] = Double.POSITIVE_INFINITY;
+                nadir[i] = Double.NEGATIVE_INFINITY;
+            }
+        }
+        for (double[] objectives : members.values()) {
+            for (int i = 0; i < stale.length; i++) {
+                if (stale[i]) {
+                    ideal[i] = Math.min(ideal[i], objectives[i]);
+                    nadir[i] = Math.max(nadir[i], objectives[i]);
+                }
+            }
+        }
+        Arrays.fill(stale, false);
+        anyStale = false;
+    }
+}
@@ -5,6 +5,11 @@ import org.moeaframework.core.comparator.DominanceComparator;
 import org.moeaframework.core.comparator.ParetoDominanceComparator;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import static projectimplementation.guardianArchive.GuardianAssignment.*;
 
@@ -18,16 +23,62 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      */
     final GuardianAssignment[] options;
 
+    /**
+     * Specifies whether solutions keep their subtree sizes up to date, which only SMALLEST_SUBTREE assignments read.
+     */
+    private final boolean countingSubtrees;
+
     /**
      * Stores the pareto solutions of this population
      */
     private List<GuardianSolution> paretoSet;
 
+    /**
+     * Stores every solution in the archive in the order they were added, so members can be sampled
+     * without searching the trees
+     */
+    private List<GuardianSolution> members;
+
     /**
      * Stores how many solutions are in the archive
      */
     private int size;
 
+    /**
+     * The default Pareto set size above which it is scanned in parallel
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    /**
+     * The number of Pareto members each parallel task compares sequentially
+     */
+    private static final int SCAN_CHUNK = 1024;
+
+    /**
+     * The default number of orphaned children above which their guardians are found in parallel
+     */
+    public static final int DEFAULT_PARALLEL_REHOME_THRESHOLD = 1000;
+
+    /**
+     * The number of orphaned children each parallel task finds guardians for sequentially
+     */
+    private static final int REHOME_CHUNK = 64;
+
+    /**
+     * The Pareto set size above which it is scanned in parallel
+     */
+    private int parallelThreshold;
+
+    /**
+     * The number of orphaned children above which their guardians are found in parallel
+     */
+    private int parallelRehomeThreshold;
+
+    /**
+     * The pool used to scan the Pareto set in parallel
+     */
+    private ForkJoinPool scanPool;
+
     public GuardianArchive(int numberOfObjectives) {
         this(numberOfObjectives, new ParetoDominanceComparator());
     }
@@ -58,8 +109,13 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             throw new IllegalArgumentException("Option 1 and 3 cannot be optimal");
         }
         this.options = options;
+        this.countingSubtrees = Arrays.asList(options).contains(SMALLEST_SUBTREE);
         this.paretoSet = new ArrayList<>();
+        this.members = new ArrayList<>();
         this.size = 0;
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        this.parallelRehomeThreshold = DEFAULT_PARALLEL_REHOME_THRESHOLD;
+        this.scanPool = ForkJoinPool.commonPool();
     }
 
     /**
@@ -81,6 +137,56 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         this(Arrays.asList(solutions));
     }
 
+    /**
+     * Sets the Pareto set size above which the set is scanned in parallel when a solution is added or edited.
+     * The dominance relations are found concurrently, up to the first member a sequential scan would stop at, and
+     * then applied in the same order as a sequential scan, so the resulting archive does not depend on the
+     * threshold. A {@link ParetoDominanceCounter} is charged for the comparisons a sequential scan would make.
+     *
+     * @param parallelThreshold the smallest Pareto set size scanned in parallel, {@code Integer.MAX_VALUE} to
+     *                          always scan sequentially
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the number of children above which, when their guardian is edited, new guardians are found for them in
+     * parallel before being assigned sequentially. Only guardian assignments whose choice does not depend on the
+     * children already re-homed are parallelised, so the resulting archive does not depend on the threshold.
+     * The comparisons made do not depend on it either, except that the children of a non dominated solution are
+     * not compared against their siblings which become non dominated before them, which can never guard them.
+     *
+     * @param parallelRehomeThreshold the smallest number of children re-homed in parallel,
+     *                                {@code Integer.MAX_VALUE} to always re-home sequentially
+     */
+    public void setParallelRehomeThreshold(int parallelRehomeThreshold) {
+        if (parallelRehomeThreshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        this.parallelRehomeThreshold = parallelRehomeThreshold;
+    }
+
+    public int getParallelRehomeThreshold() {
+        return parallelRehomeThreshold;
+    }
+
+    /**
+     * Sets the pool used to scan the Pareto set and re-home children in parallel.
+     *
+     * @param scanPool the pool to run scans in
+     */
+    public void setScanPool(ForkJoinPool scanPool) {
+        this.scanPool = Objects.requireNonNull(scanPool);
+    }
+
     /**
      * Returns the set of options being used to assign guardians
      *
@@ -104,6 +210,25 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         return all;
     }
 
+    @Override
+    public Iterator<GuardianSolution> iterator() {
+        return Collections.unmodifiableList(members).iterator();
+    }
+
+    /**
+     * Splits the members by the order they were added rather than by Pareto root, as a handful of roots
+     * usually guard most of the population and would leave the other threads idle.
+     */
+    @Override
+    public Spliterator<GuardianSolution> spliterator() {
+        return Collections.unmodifiableList(members).spliterator();
+    }
+
+    @Override
+    public void forEachPareto(Consumer<? super GuardianSolution> action) {
+        paretoSet.forEach(action);
+    }
+
     @Override
     public boolean contains(GuardianSolution solution) {
         if (paretoSet.contains(solution)) {
@@ -128,6 +253,22 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         return new ArrayList<>(this.paretoSet);
     }
 
+    @Override
+    public GuardianSolution randomParetoMember(Random random) {
+        if (paretoSet.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return paretoSet.get(random.nextInt(paretoSet.size()));
+    }
+
+    @Override
+    public GuardianSolution randomMember(Random random) {
+        if (members.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return members.get(random.nextInt(members.size()));
+    }
+
     @Override
     public boolean pareto(GuardianSolution solution) {
         return !solution.hasParent();
@@ -160,6 +301,8 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             }
         }
         paretoSet = new ArrayList<>();
+        paretoCleared();
+        members = new ArrayList<>();
         size = 0;
     }
 
@@ -170,9 +313,13 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         }
 
         if (isEmpty()) {
+            solution.setCountingSubtree(countingSubtrees);
             solution.addPropertyChangeListener(this);
             paretoSet.add(solution);
+            paretoAdded(solution);
+            members.add(solution);
             size += 1;
+            solutionAdded(solution);
             return true;
         }
 
@@ -185,6 +332,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             }
         }
 
+        solution.setCountingSubtree(countingSubtrees);
         solution.addPropertyChangeListener(this);
 
         int eIndex = checkParetoSet(solution);
@@ -192,10 +340,14 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             GuardianSolution guardian = assignNewSolutionAGuardian(options[1], solution, eIndex);
             guardian.addChild(solution);
             solution.setParent(guardian); // solution is dominated
+            guardianChanged(solution, guardian);
         } else {
             paretoSet.add(solution);
+            paretoAdded(solution);
         }
+        members.add(solution);
         size += 1;
+        solutionAdded(solution);
         return true;
     }
 
@@ -222,7 +374,9 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         if (newGuardian != null) {
             // it became dominated
             paretoSet.remove(solution);
+            paretoRemoved(solution);
             solution.setParent(newGuardian);
+            guardianChanged(solution, newGuardian);
             newGuardian.addChild(solution);
         }
         updateChildrenOfNonDominatedSolution(options[3], solution, new ArrayList<>(oldChildren));
@@ -236,17 +390,20 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         List<GuardianSolution> oldChildren = new ArrayList<>(solution.getChildren());
         solution.removeChildren();
         GuardianSolution oldGuardian = solution.getParent();
-
-        GuardianSolution newGuardian = editDominated(options[4], solution, new ArrayDeque<>(oldChildren));
-
+        // detach solution first, as it may now guard its old guardian's ancestors
         oldGuardian.removeChild(solution);
 
+        GuardianSolution newGuardian = editDominated(options[4], solution, oldGuardian, new ArrayDeque<>(oldChildren));
+
         if (newGuardian != null) {
             solution.setParent(newGuardian); // remains dominated
+            guardianChanged(solution, newGuardian);
             newGuardian.addChild(solution);
         } else {
             solution.setParent(null); // became non dominated
+            guardianChanged(solution, null);
             paretoSet.add(solution);
+            paretoAdded(solution);
         }
 
         updateChildrenOfDominatedSolution(options[5], solution, new ArrayList<>(oldChildren), oldGuardian);
@@ -260,16 +417,19 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      */
     protected int checkParetoSet(GuardianSolution solution) {
         int paretoSize = paretoSize();
+        ParetoScan scan = scanParetoSet(null, solution, 0, false);
 
-        for (int i = 0; i < paretoSize; i++) {
+        for (int i = 0, j = 0; i < paretoSize; i++, j++) {
             GuardianSolution currentPareto = paretoSet.get(i);
-            int dominance = comparator.compare(solution, currentPareto);
+            int dominance = scan != null ? scan.dominance[j] : comparator.compare(solution, currentPareto);
 
             if (dominance == -1) {
                 solution.addChild(currentPareto);
                 currentPareto.setParent(solution);
+                guardianChanged(currentPareto, solution);
 
                 paretoSet.remove(i);
+                paretoRemoved(currentPareto);
                 i--;
                 paretoSize--;
             } else {
@@ -301,6 +461,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             }
         } else {
             paretoSet.remove(solution);
+            paretoRemoved(solution);
             return guardianSibling;
         }
     }
@@ -309,10 +470,11 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      * Finds a guardian, if required, for a dominated solution that has had its objectives changed.
      * @param option GuardianAssigment method to use.
      * @param solution the solution whose objective values have changed.
+     * @param oldGuardian the guardian of solution before the edit operation.
      * @param oldChildren the edited solutions old children.
      * @return a guardian for solution, return null otherwise.
      */
-    protected GuardianSolution editDominated(GuardianAssignment option, GuardianSolution solution, Queue<GuardianSolution> oldChildren) {
+    protected GuardianSolution editDominated(GuardianAssignment option, GuardianSolution solution, GuardianSolution oldGuardian, Queue<GuardianSolution> oldChildren) {
 
         int paretoIndex = checkParetoSet(solution);
         if (paretoIndex == -1) {
@@ -320,7 +482,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             return null;
         } else {
             // option 5 here
-            return findGuardianForEditedDominatedSolution(option, solution, paretoIndex, oldChildren);
+            return findGuardianForEditedDominatedSolution(option, solution, oldGuardian, paretoIndex, oldChildren);
             //return continueParetoSearch(option, solution, paretoIndex); // find guardian for now dominated solution
         }
 
@@ -334,14 +496,19 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      */
     protected void updateChildrenOfNonDominatedSolution(GuardianAssignment option, GuardianSolution solution, List<GuardianSolution> oldChildren) {
         int numChildren = oldChildren.size();
+        GuardianSolution[] newGuardians = rehomeInParallel(option, numChildren, false)
+            ? findGuardiansInParallel(numChildren, i -> findGuardianForNonDominatedChild(option, solution, oldChildren.get(i), oldChildren))
+            : null;
 
         for (int i = 0; i < numChildren; i++) {
             GuardianSolution oldChild = oldChildren.get(i);
-            GuardianSolution newGuardian = findGuardianForNonDominatedChild(option, solution, oldChild, oldChildren);
+            GuardianSolution newGuardian = newGuardians != null ? newGuardians[i] : findGuardianForNonDominatedChild(option, solution, oldChild, oldChildren);
 
             oldChild.setParent(newGuardian);
+            guardianChanged(oldChild, newGuardian);
             if (newGuardian == null) {
                 paretoSet.add(oldChild); // child becomes non dominated
+                paretoAdded(oldChild);
             } else {
                 newGuardian.addChild(oldChild); // child remains dominated
             }
@@ -407,6 +574,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
     private GuardianSolution searchOtherChildren(GuardianAssignment option, GuardianSolution oldChild, List<GuardianSolution> children) {
         double closestDistance = Double.MAX_VALUE;
         int fewestGuards = Integer.MAX_VALUE;
+        int smallestSubtree = Integer.MAX_VALUE;
         GuardianSolution siblingGuardian = null;
         for (int j = 0; j < children.size(); j++) {
             GuardianSolution otherChild = children.get(j);
@@ -415,6 +583,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                 switch (option) {
                     case OPTIMAL:
                     case FIRST:
+                    case DEEPEST: // siblings all share the same depth
                         return otherChild;
                     case CLOSEST:
                         double currDistance = distanceMetric.distance(oldChild, otherChild);
@@ -433,6 +602,16 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                             siblingGuardian = otherChild;
                         }
                         break;
+                    case SMALLEST_SUBTREE:
+                        int subtreeSize = otherChild.getSubtreeSize();
+                        if (subtreeSize < smallestSubtree) {
+                            smallestSubtree = subtreeSize;
+                            siblingGuardian = otherChild;
+                            if (smallestSubtree == 1) {
+                                return siblingGuardian;
+                            }
+                        }
+                        break;
                 }
             }
         }
@@ -448,13 +627,17 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      */
     protected void updateChildrenOfDominatedSolution(GuardianAssignment option, GuardianSolution solution, List<GuardianSolution> oldChildren, GuardianSolution oldGuardian) {
         int numChildren = oldChildren.size();
+        GuardianSolution[] newGuardians = rehomeInParallel(option, numChildren, true)
+            ? findGuardiansInParallel(numChildren, i -> chooseGuardianForChild(option, solution, oldGuardian, oldChildren.get(i), oldChildren))
+            : null;
 
         for (int i = 0; i < numChildren; i++) {
             GuardianSolution oldChild = oldChildren.get(i);
 
-            GuardianSolution newGuardian = chooseGuardianForChild(option, solution, oldGuardian, oldChild, oldChildren);
+            GuardianSolution newGuardian = newGuardians != null ? newGuardians[i] : chooseGuardianForChild(option, solution, oldGuardian, oldChild, oldChildren);
 
             oldChild.setParent(newGuardian); // child can only remain dominated
+            guardianChanged(oldChild, newGuardian);
             newGuardian.addChild(oldChild);
         }
     }
@@ -490,6 +673,8 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                 }
             case CLOSEST:
             case FEWEST:
+            case DEEPEST:
+            case SMALLEST_SUBTREE:
                 siblingGuardian = searchOtherChildren(option, oldChild, oldChildren);
                 if (siblingGuardian == null) {
                     if (comparator.compare(solution, oldChild) == -1) {
@@ -519,6 +704,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
         GuardianSolution paretoGuardian = null;
         double closestDistance = Double.MAX_VALUE;
         int fewestGuards = Integer.MAX_VALUE;
+        int smallestSubtree = Integer.MAX_VALUE;
 
         int paretoSize = paretoSet.size();
         for (int j = 0; j < paretoSize; j++) {
@@ -529,6 +715,7 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             if (dominance == 1) {
                 switch (option) {
                     case FIRST:
+                    case DEEPEST: // every pareto solution is a root
                         return currentPareto;
                     case CLOSEST:
                         double currDistance = distanceMetric.distance(oldChild, currentPareto);
@@ -547,6 +734,16 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                             }
                         }
                         break;
+                    case SMALLEST_SUBTREE:
+                        int subtreeSize = currentPareto.getSubtreeSize();
+                        if (subtreeSize < smallestSubtree) {
+                            smallestSubtree = subtreeSize;
+                            paretoGuardian = currentPareto;
+                            if (smallestSubtree == 1) {
+                                return paretoGuardian;
+                            }
+                        }
+                        break;
                 }
             }
         }
@@ -569,10 +766,20 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
 
         double closest = Double.MAX_VALUE;
         int fewestGuards = Integer.MAX_VALUE;
+        int deepest = -1;
+        int smallestSubtree = Integer.MAX_VALUE;
         GuardianSolution treeGuardian = null;
 
+        // the search starts from siblings, so the level of the search orders solutions by depth
+        int level = 0;
+        int remainingInLevel = children.size();
         GuardianSolution currentNode;
         while (!children.isEmpty()) {
+            if (remainingInLevel == 0) {
+                level += 1;
+                remainingInLevel = children.size();
+            }
+            remainingInLevel -= 1;
             currentNode = children.poll();
             if (comparator.compare(currentNode, solution) == -1) {
                 switch (option) {
@@ -593,6 +800,23 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                                 return treeGuardian;
                             }
                         }
+                        break;
+                    case DEEPEST:
+                        if (level > deepest) {
+                            deepest = level;
+                            treeGuardian = currentNode;
+                        }
+                        break;
+                    case SMALLEST_SUBTREE:
+                        int subtreeSize = currentNode.getSubtreeSize();
+                        if (subtreeSize < smallestSubtree) {
+                            smallestSubtree = subtreeSize;
+                            treeGuardian = currentNode;
+                            if (smallestSubtree == 1) {
+                                return treeGuardian;
+                            }
+                        }
+                        break;
                 }
                 children.addAll(currentNode.getChildren());
             }
@@ -616,6 +840,8 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                 return Objects.requireNonNullElse(first, paretoSet.get(rootIndex));
             case CLOSEST:
             case FEWEST:
+            case DEEPEST:
+            case SMALLEST_SUBTREE:
                 GuardianSolution closest = searchWholeTree(option, solution, new ArrayDeque<>(paretoSet.get(rootIndex).getChildren()));
                 return Objects.requireNonNullElse(closest, continueParetoSearch(option, solution, rootIndex));
             default:
@@ -633,19 +859,22 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
     private GuardianSolution continueParetoSearch(GuardianAssignment option, GuardianSolution solution, int rootIndex) {
         double closestDistance = Double.MAX_VALUE;
         int fewestGuards = Integer.MAX_VALUE;
+        int smallestSubtree = Integer.MAX_VALUE;
         GuardianSolution paretoGuardian = null;
 
         int paretoSize = paretoSet.size();
+        ParetoScan scan = scanParetoSet(option, solution, rootIndex, true);
         for (int i = rootIndex; i < paretoSize; i++) {
             GuardianSolution currentPareto = paretoSet.get(i);
-            int dominance = comparator.compare(currentPareto, solution);
+            int dominance = scan != null ? scan.dominance[i - rootIndex] : comparator.compare(currentPareto, solution);
             if (dominance == -1) {
                 switch (option) {
                     case OPTIMAL:
                     case FIRST:
+                    case DEEPEST: // every pareto solution is a root
                         return currentPareto;
                     case CLOSEST:
-                        double currDistance = distanceMetric.distance(solution, currentPareto);
+                        double currDistance = scan != null ? scan.distance[i - rootIndex] : distanceMetric.distance(solution, currentPareto);
                         if (currDistance < closestDistance) {
                             closestDistance = currDistance;
                             paretoGuardian = currentPareto;
@@ -659,6 +888,17 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
                                 return currentPareto;
                             }
                         }
+                        break;
+                    case SMALLEST_SUBTREE:
+                        int subtreeSize = scan != null ? scan.subtreeSize[i - rootIndex] : currentPareto.getSubtreeSize();
+                        if (subtreeSize < smallestSubtree) {
+                            smallestSubtree = subtreeSize;
+                            paretoGuardian = currentPareto;
+                            if (smallestSubtree == 1) {
+                                return currentPareto;
+                            }
+                        }
+                        break;
                 }
             }
         }
@@ -669,20 +909,20 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
      * Chooses a guardian for an edited dominated solution.
      * @param option GuardianAssigment method.
      * @param solution the solution to dominate
+     * @param oldGuardian the guardian of solution before the edit operation.
      * @param paretoIndex the index of the first pareto element to dominate solution.
      * @param oldChildren the children of solution before the edit operation.
      * @return a guardian for solution.
      */
-    protected GuardianSolution findGuardianForEditedDominatedSolution(GuardianAssignment option, GuardianSolution solution, int paretoIndex, Queue<GuardianSolution> oldChildren) {
+    protected GuardianSolution findGuardianForEditedDominatedSolution(GuardianAssignment option, GuardianSolution solution, GuardianSolution oldGuardian, int paretoIndex, Queue<GuardianSolution> oldChildren) {
         if (option == OPTIMAL) {
-            if (comparator.compare(solution.getParent(), solution) == -1) {
-                return solution.getParent();
+            if (comparator.compare(oldGuardian, solution) == -1) {
+                return oldGuardian;
             } else {
                 return continueParetoSearch(option, solution, paretoIndex);
             }
         } else {
             GuardianSolution treeGuardian = searchWholeTree(option, solution, new ArrayDeque<>(oldChildren));
-            GuardianSolution oldGuardian = solution.getParent();
             if (treeGuardian != null) {
                 return treeGuardian;
             } else {
@@ -694,4 +934,205 @@ public class GuardianArchive extends DynamicArchive<GuardianSolution> {
             }
         }
     }
+
+    /**
+     * Compares a solution against the Pareto set from the given index in parallel, if the set is large enough.
+     * @param option GuardianAssigment method, which decides what else is calculated for dominating members, or
+     *               null if only the dominance relations are required.
+     * @param solution the solution to compare against the pareto set.
+     * @param from the index of the pareto set to start from.
+     * @param paretoFirst compares each pareto member to solution if true, and solution to each member otherwise.
+     * @return the results of the comparisons in pareto set order, up to the first member the sequential scan
+     * stops at, or null if the set should be scanned sequentially.
+     */
+    private ParetoScan scanParetoSet(GuardianAssignment option, GuardianSolution solution, int from, boolean paretoFirst) {
+        int length = paretoSet.size() - from;
+        if (length < parallelThreshold || length <= SCAN_CHUNK) {
+            return null;
+        }
+        if (option == CLOSEST) {
+            extremePoints.getIdeal(); // recalculate stale extremes before the distances are read concurrently
+        }
+        ParetoScan scan = new ParetoScan(option, solution, from, length, paretoFirst);
+        scanPool.invoke(scan.new ScanTask(0, length));
+        if (comparator instanceof ParetoDominanceCounter) {
+            ((ParetoDominanceCounter) comparator).addComparisons(scan.stop.get());
+        }
+        return scan;
+    }
+
+    /**
+     * Compares two solutions for a parallel scan, which charges a {@link ParetoDominanceCounter} once it knows how
+     * many comparisons the sequential scan would have made.
+     */
+    private int compareUncounted(GuardianSolution solution1, GuardianSolution solution2) {
+        if (comparator instanceof ParetoDominanceCounter) {
+            return ((ParetoDominanceCounter) comparator).compareUncounted(solution1, solution2);
+        }
+        return comparator.compare(solution1, solution2);
+    }
+
+    /**
+     * Decides whether the guardians of an edited solution's old children can be found in parallel. The searches
+     * only read the archive, but for some options the choice depends on the children re-homed before it.
+     * @param option GuardianAssigment method.
+     * @param numChildren the number of old children.
+     * @param dominated true if the edited solution's children are re-homed as a dominated solution's.
+     * @return true if the children should be re-homed in parallel.
+     */
+    private boolean rehomeInParallel(GuardianAssignment option, int numChildren, boolean dominated) {
+        if (numChildren < parallelRehomeThreshold) {
+            return false;
+        }
+        switch (option) {
+            case OPTIMAL:
+            case FIRST:
+            case DEEPEST:
+                return true;
+            case CLOSEST:
+                return dominated; // the pareto search for a non dominated solution's child also weighs child counts
+            default:
+                return false; // child counts and subtree sizes change as each child is re-homed
+        }
+    }
+
+    /**
+     * Finds a guardian for each old child in parallel, without modifying the archive.
+     * @param numChildren the number of old children.
+     * @param search finds the guardian of the old child at the given index.
+     * @return the guardian of each old child, in order.
+     */
+    private GuardianSolution[] findGuardiansInParallel(int numChildren, IntFunction<GuardianSolution> search) {
+        if (distanceMetric instanceof NormalizedDistanceMetric) {
+            extremePoints.getIdeal(); // recalculate stale extremes before the distances are read concurrently
+        }
+        GuardianSolution[] newGuardians = new GuardianSolution[numChildren];
+        scanPool.invoke(new RehomeTask(search, newGuardians, 0, numChildren));
+        return newGuardians;
+    }
+
+    /**
+     * Splits the old children in half until there are few enough to search for sequentially.
+     */
+    private static class RehomeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntFunction<GuardianSolution> search;
+        private final GuardianSolution[] newGuardians;
+        private final int start;
+        private final int end;
+
+        private RehomeTask(IntFunction<GuardianSolution> search, GuardianSolution[] newGuardians, int start, int end) {
+            this.search = search;
+            this.newGuardians = newGuardians;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= REHOME_CHUNK) {
+                for (int i = start; i < end; i++) {
+                    newGuardians[i] = search.apply(i);
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RehomeTask(search, newGuardians, start, middle), new RehomeTask(search, newGuardians, middle, end));
+            }
+        }
+    }
+
+    /**
+     * The results of comparing a solution against part of the Pareto set, for each member in order up to the first
+     * member the sequential scan stops at.
+     */
+    private class ParetoScan {
+        private final GuardianAssignment option;
+        private final GuardianSolution solution;
+        private final int from;
+        private final boolean paretoFirst;
+
+        /**
+         * One past the lowest index found so far where the sequential scan stops, beyond which nothing is compared.
+         */
+        private final AtomicInteger stop;
+
+        private final int[] dominance;
+        private final double[] distance;
+        private final int[] subtreeSize;
+
+        private ParetoScan(GuardianAssignment option, GuardianSolution solution, int from, int length, boolean paretoFirst) {
+            this.option = option;
+            this.solution = solution;
+            this.from = from;
+            this.paretoFirst = paretoFirst;
+            this.stop = new AtomicInteger(length);
+            this.dominance = new int[length];
+            this.distance = option == CLOSEST ? new double[length] : null;
+            this.subtreeSize = option == SMALLEST_SUBTREE ? new int[length] : null;
+        }
+
+        /**
+         * Finds if the sequential scan stops at the member at the given index, once it has been compared.
+         */
+        private boolean stopsAt(int i, GuardianSolution currentPareto) {
+            if (!paretoFirst) {
+                return dominance[i] == 1; // checkParetoSet returns the first member to dominate the solution
+            }
+            if (dominance[i] != -1) {
+                return false;
+            }
+            switch (option) {
+                case CLOSEST:
+                case FEWEST:
+                    return currentPareto.getNumberOfChildren() == 0;
+                case SMALLEST_SUBTREE:
+                    return subtreeSize[i] == 1;
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * Splits the range in half until it is small enough to compare sequentially, skipping members beyond
+         * where the sequential scan stops.
+         */
+        private class ScanTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int start;
+            private final int end;
+
+            private ScanTask(int start, int end) {
+                this.start = start;
+                this.end = end;
+            }
+
+            @Override
+            protected void compute() {
+                if (start >= stop.get()) {
+                    return;
+                }
+                if (end - start <= SCAN_CHUNK) {
+                    for (int i = start; i < end && i < stop.get(); i++) {
+                        GuardianSolution currentPareto = paretoSet.get(from + i);
+                        dominance[i] = paretoFirst ? compareUncounted(currentPareto, solution) : compareUncounted(solution, currentPareto);
+                        if (dominance[i] == -1 && distance != null) {
+                            distance[i] = distanceMetric.distance(solution, currentPareto);
+                        }
+                        if (dominance[i] == -1 && subtreeSize != null) {
+                            subtreeSize[i] = currentPareto.getSubtreeSize();
+                        }
+                        if (stopsAt(i, currentPareto)) {
+                            stop.accumulateAndGet(i + 1, Math::min);
+                            return;
+                        }
+                    }
+                } else {
+                    int middle = (start + end) >>> 1;
+                    invokeAll(new ScanTask(start, middle), new ScanTask(middle, end));
+                }
+            }
+        }
+    }
 }
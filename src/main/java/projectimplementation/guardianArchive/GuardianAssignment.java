@@ -23,5 +23,15 @@ public enum GuardianAssignment {
     /**
      * Choose the dominating element with the fewest guards from the set.
      */
-    FEWEST
+    FEWEST,
+
+    /**
+     * Choose the dominating element which sits deepest in the guardian tree, keeping the roots light.
+     */
+    DEEPEST,
+
+    /**
+     * Choose the dominating element with the smallest subtree, minimising future orphan cascades.
+     */
+    SMALLEST_SUBTREE
 }
@@ -15,6 +15,18 @@ public class GuardianSolution extends DynamicSolution {
     private List<GuardianSolution> children;
     private GuardianSolution parent;
 
+    /**
+     * The number of solutions guarded by this solution, including itself, kept up to date as children are
+     * attached and detached if {@link #countingSubtree} is set.
+     */
+    private int subtreeSize = 1;
+
+    /**
+     * Specifies whether the subtree size is kept up to date, which is only needed by archives that assign guardians
+     * by {@link GuardianAssignment#SMALLEST_SUBTREE}, so other archives do not walk the guardians on every change.
+     */
+    private boolean countingSubtree;
+
     /**
      * Constructs a guardian solution with the specified number of variables and
      * objectives with no constraints.
@@ -154,6 +166,7 @@ public class GuardianSolution extends DynamicSolution {
      */
     protected void addChild(GuardianSolution child) {
         children.add(child);
+        updateSubtreeSizes(child.subtreeSize);
     }
 
     /**
@@ -162,7 +175,9 @@ public class GuardianSolution extends DynamicSolution {
      * @param child the child to remove
      */
     protected void removeChild(GuardianSolution child) {
-        children.remove(child);
+        if (children.remove(child)) {
+            detach(child);
+        }
     }
 
     /**
@@ -171,17 +186,67 @@ public class GuardianSolution extends DynamicSolution {
      * @param index the index of the child to remove
      */
     protected void removeChild(int index) {
-        children.remove(index);
+        detach(children.remove(index));
     }
 
     /**
      * Removes all child nodes.
      */
     protected void removeChildren() {
+        List<GuardianSolution> oldChildren = children;
         children = new LinkedList<>();
+        for (GuardianSolution child : oldChildren) {
+            detach(child);
+        }
+    }
+
+    /**
+     * Clears the parent of a removed child, so the guardians found for it later are not confused with
+     * its old guardian's ancestors, and removes its subtree from the sizes.
+     *
+     * @param child the child which has been removed
+     */
+    private void detach(GuardianSolution child) {
+        if (child.parent == this) {
+            child.parent = null;
+        }
+        updateSubtreeSizes(-child.subtreeSize);
+    }
+
+    /**
+     * Changes the subtree size of this solution and each of its guardians.
+     *
+     * @param change the number of solutions added to, or removed from, this solution's subtree
+     */
+    private void updateSubtreeSizes(int change) {
+        if (!countingSubtree) {
+            return;
+        }
+        for (GuardianSolution current = this; current != null; current = current.parent) {
+            current.subtreeSize += change;
+        }
     }
 
     protected boolean hasChild(GuardianSolution child){
         return children.contains(child);
     }
+
+    /**
+     * Sets whether the subtree size is kept up to date. Every solution in an archive must agree, so it is set as
+     * solutions are added, before any children are attached.
+     *
+     * @param countingSubtree {@code true} to keep the subtree size up to date
+     */
+    protected void setCountingSubtree(boolean countingSubtree) {
+        this.countingSubtree = countingSubtree;
+    }
+
+    /**
+     * Finds the number of solutions guarded by this solution, including itself.
+     *
+     * @return the size of the subtree rooted at this solution, which is only kept up to date while counting
+     */
+    protected int getSubtreeSize() {
+        return subtreeSize;
+    }
 }
@@ -0,0 +1,404 @@
+package projectimplementation.guardianArchive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Maintains the hypervolume dominated by the Pareto set of an archive with respect to a reference point.
+ * All objectives are minimised, so only points which strictly dominate the reference point contribute.
+ * <p>
+ * Front changes are buffered as they are reported by the archive and applied when the value is next
+ * requested, at which point the archive is guaranteed to hold a mutually non-dominated front. For two
+ * objectives the value is updated in O(log n) per change and for three objectives in O(n log n) per change,
+ * in both cases without copying the front. Higher dimensions are recomputed on request when the front has
+ * changed, exactly for small fronts and by Monte Carlo sampling otherwise.
+ */
+public class HypervolumeIndicator {
+
+    /**
+     * The largest front for which the hypervolume is calculated exactly above three objectives.
+     */
+    public static final int EXACT_LIMIT = 64;
+
+    /**
+     * The number of samples used to approximate the hypervolume of larger fronts above three objectives.
+     */
+    public static final int SAMPLES = 100000;
+
+    /**
+     * The point against which the hypervolume is measured.
+     */
+    private final double[] referencePoint;
+
+    /**
+     * The objectives of each front member when it was last applied to the indicator.
+     */
+    private final Map<DynamicSolution, double[]> front;
+
+    /**
+     * Solutions which have joined, left or moved within the front since the value was last requested,
+     * mapped to whether they are currently in the front.
+     */
+    private Map<DynamicSolution, Boolean> pending;
+
+    /**
+     * The staircase of the front, only used for two objectives.
+     */
+    private final Staircase staircase;
+
+    /**
+     * The hypervolume of the front as of the last request.
+     */
+    private double hypervolume;
+
+    /**
+     * Source of randomness for the Monte Carlo approximation, seeded so repeated requests agree.
+     */
+    private final Random random;
+
+    /**
+     * Constructs an empty hypervolume indicator.
+     *
+     * @param referencePoint the point against which the hypervolume is measured
+     */
+    public HypervolumeIndicator(double[] referencePoint) {
+        if (referencePoint.length < 2) {
+            throw new IllegalArgumentException("Reference point must have at least two objectives");
+        }
+        this.referencePoint = referencePoint.clone();
+        this.front = new IdentityHashMap<>();
+        this.pending = new IdentityHashMap<>();
+        this.staircase = referencePoint.length == 2 ? new Staircase(referencePoint[0], referencePoint[1]) : null;
+        this.hypervolume = 0.0;
+        this.random = new Random(0);
+    }
+
+    /**
+     * Returns the point against which the hypervolume is measured.
+     *
+     * @return a copy of the reference point
+     */
+    public double[] getReferencePoint() {
+        return referencePoint.clone();
+    }
+
+    /**
+     * Records that a solution has joined, left or moved within the front.
+     *
+     * @param solution the solution which changed
+     * @param pareto   {@code true} if the solution is now in the front, {@code false} otherwise
+     */
+    public void update(DynamicSolution solution, boolean pareto) {
+        pending.put(solution, pareto);
+    }
+
+    /**
+     * Forgets every member of the front.
+     */
+    public void clear() {
+        front.clear();
+        pending = new IdentityHashMap<>();
+        if (staircase != null) {
+            staircase.clear();
+        }
+        hypervolume = 0.0;
+    }
+
+    /**
+     * Returns the hypervolume of the current front.
+     *
+     * @return the hypervolume dominated by the front and bounded by the reference point
+     */
+    public double getValue() {
+        if (pending.isEmpty()) {
+            return hypervolume;
+        }
+        Map<DynamicSolution, Boolean> changes = pending;
+        pending = new IdentityHashMap<>();
+
+        // remove every changed member using the objectives it was applied with, then add the current ones,
+        // so every intermediate set is a subset of either the old or the new front
+        for (DynamicSolution solution : changes.keySet()) {
+            double[] point = front.remove(solution);
+            if (point != null && inside(point)) {
+                removePoint(point);
+            }
+        }
+        for (Map.Entry<DynamicSolution, Boolean> change : changes.entrySet()) {
+            if (change.getValue()) {
+                double[] point = change.getKey().getObjectives();
+                if (inside(point)) {
+                    addPoint(point);
+                }
+                front.put(change.getKey(), point);
+            }
+        }
+
+        if (referencePoint.length > 3) {
+            hypervolume = recompute();
+        }
+        return hypervolume;
+    }
+
+    /**
+     * Finds if a point strictly dominates the reference point.
+     *
+     * @param point the objectives of a solution
+     * @return {@code true} if the point contributes to the hypervolume, {@code false} otherwise
+     */
+    private boolean inside(double[] point) {
+        for (int i = 0; i < referencePoint.length; i++) {
+            if (point[i] >= referencePoint[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPoint(double[] point) {
+        if (staircase != null) {
+            staircase.add(point[0], point[1]);
+            hypervolume = staircase.getArea();
+        } else if (referencePoint.length == 3) {
+            hypervolume += contribution(point);
+        }
+    }
+
+    private void removePoint(double[] point) {
+        if (staircase != null) {
+            staircase.remove(point[0], point[1]);
+            hypervolume = staircase.getArea();
+        } else if (referencePoint.length == 3) {
+            hypervolume -= contribution(point);
+        }
+    }
+
+    /**
+     * Finds the volume dominated by a point and by no other member of the front.
+     *
+     * @param point a point which is not in the front
+     * @return the exclusive contribution of the point
+     */
+    private double contribution(double[] point) {
+        List<double[]> limited = new ArrayList<>(front.size());
+        for (double[] other : front.values()) {
+            if (inside(other)) {
+                double[] max = new double[3];
+                for (int i = 0; i < 3; i++) {
+                    max[i] = Math.max(point[i], other[i]);
+                }
+                limited.add(max);
+            }
+        }
+        double box = (referencePoint[0] - point[0]) * (referencePoint[1] - point[1]) * (referencePoint[2] - point[2]);
+        return box - volume3D(limited, referencePoint);
+    }
+
+    /**
+     * Calculates the hypervolume of the whole front above three objectives.
+     *
+     * @return the exact hypervolume for small fronts and an approximation otherwise
+     */
+    private double recompute() {
+        List<double[]> points = new ArrayList<>(front.size());
+        for (double[] point : front.values()) {
+            if (inside(point)) {
+                points.add(point);
+            }
+        }
+        if (points.size() <= EXACT_LIMIT) {
+            return exact(points, referencePoint, referencePoint.length);
+        } else {
+            return approximate(points);
+        }
+    }
+
+    /**
+     * Calculates the hypervolume by slicing along the last objective.
+     *
+     * @param points     points which strictly dominate the reference point
+     * @param reference  the reference point
+     * @param dimensions the number of leading objectives to consider
+     * @return the exact hypervolume of the points
+     */
+    static double exact(List<double[]> points, double[] reference, int dimensions) {
+        if (points.isEmpty()) {
+            return 0.0;
+        }
+        if (dimensions == 2) {
+            Staircase slice = new Staircase(reference[0], reference[1]);
+            for (double[] point : points) {
+                slice.add(point[0], point[1]);
+            }
+            return slice.getArea();
+        }
+        if (dimensions == 3) {
+            return volume3D(points, reference);
+        }
+
+        int last = dimensions - 1;
+        List<double[]> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparingDouble(p -> p[last]));
+
+        double volume = 0.0;
+        for (int i = 0; i < sorted.size(); i++) {
+            double upper = i + 1 < sorted.size() ? sorted.get(i + 1)[last] : reference[last];
+            if (upper > sorted.get(i)[last]) {
+                volume += exact(sorted.subList(0, i + 1), reference, last) * (upper - sorted.get(i)[last]);
+            }
+        }
+        return volume;
+    }
+
+    /**
+     * Calculates the hypervolume of three objective points by sweeping along the last objective.
+     *
+     * @param points    points which strictly dominate the reference point
+     * @param reference the reference point
+     * @return the exact hypervolume of the points
+     */
+    static double volume3D(List<double[]> points, double[] reference) {
+        if (points.isEmpty()) {
+            return 0.0;
+        }
+        double[][] sorted = points.toArray(new double[0][]);
+        Arrays.sort(sorted, Comparator.comparingDouble(p -> p[2]));
+
+        Staircase slice = new Staircase(reference[0], reference[1]);
+        double volume = 0.0;
+        for (int i = 0; i < sorted.length; i++) {
+            slice.add(sorted[i][0], sorted[i][1]);
+            double upper = i + 1 < sorted.length ? sorted[i + 1][2] : reference[2];
+            volume += slice.getArea() * (upper - sorted[i][2]);
+        }
+        return volume;
+    }
+
+    /**
+     * Approximates the hypervolume by sampling the box between the ideal and the reference point.
+     *
+     * @param points points which strictly dominate the reference point
+     * @return an estimate of the hypervolume of the points
+     */
+    private double approximate(List<double[]> points) {
+        int dimensions = referencePoint.length;
+        double[] lower = referencePoint.clone();
+        for (double[] point : points) {
+            for (int i = 0; i < dimensions; i++) {
+                lower[i] = Math.min(lower[i], point[i]);
+            }
+        }
+        double box = 1.0;
+        for (int i = 0; i < dimensions; i++) {
+            box *= referencePoint[i] - lower[i];
+        }
+
+        double[] sample = new double[dimensions];
+        int hits = 0;
+        for (int s = 0; s < SAMPLES; s++) {
+            for (int i = 0; i < dimensions; i++) {
+                sample[i] = lower[i] + random.nextDouble() * (referencePoint[i] - lower[i]);
+            }
+            for (double[] point : points) {
+                boolean dominates = true;
+                for (int i = 0; i < dimensions && dominates; i++) {
+                    dominates = point[i] <= sample[i];
+                }
+                if (dominates) {
+                    hits += 1;
+                    break;
+                }
+            }
+        }
+        return box * hits / SAMPLES;
+    }
+
+    /**
+     * The attainment surface of a set of two objective points, sorted by the first objective, which keeps
+     * track of the area it dominates.
+     */
+    static class Staircase {
+
+        private final double reference0;
+        private final double reference1;
+
+        /**
+         * Maps the first objective of each step to its second objective and the number of identical points.
+         */
+        private final TreeMap<Double, double[]> steps;
+
+        private double area;
+
+        Staircase(double reference0, double reference1) {
+            this.reference0 = reference0;
+            this.reference1 = reference1;
+            this.steps = new TreeMap<>();
+            this.area = 0.0;
+        }
+
+        double getArea() {
+            return area;
+        }
+
+        void clear() {
+            steps.clear();
+            area = 0.0;
+        }
+
+        /**
+         * Adds a point, discarding it if it is weakly dominated and discarding any steps it dominates.
+         */
+        void add(double x, double y) {
+            Map.Entry<Double, double[]> lower = steps.floorEntry(x);
+            if (lower != null && lower.getValue()[0] <= y) {
+                if (lower.getKey() == x && lower.getValue()[0] == y) {
+                    lower.getValue()[1] += 1;
+                }
+                return;
+            }
+            Map.Entry<Double, double[]> higher = steps.ceilingEntry(x);
+            while (higher != null && higher.getValue()[0] >= y) {
+                removeStep(higher.getKey());
+                higher = steps.ceilingEntry(x);
+            }
+            area += exclusive(x, y);
+            steps.put(x, new double[]{y, 1});
+        }
+
+        /**
+         * Removes a point previously added to the staircase.
+         */
+        void remove(double x, double y) {
+            double[] step = steps.get(x);
+            if (step == null || step[0] != y) {
+                return;
+            }
+            step[1] -= 1;
+            if (step[1] == 0) {
+                removeStep(x);
+            }
+        }
+
+        private void removeStep(double x) {
+            double y = steps.remove(x)[0];
+            area -= exclusive(x, y);
+        }
+
+        /**
+         * Finds the area dominated by a point which is not a step and by no step.
+         */
+        private double exclusive(double x, double y) {
+            Map.Entry<Double, double[]> lower = steps.lowerEntry(x);
+            Double higher = steps.higherKey(x);
+            double right = higher == null ? reference0 : higher;
+            double top = lower == null ? reference1 : lower.getValue()[0];
+            return (right - x) * (top - y);
+        }
+    }
+}
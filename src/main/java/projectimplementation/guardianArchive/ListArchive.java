@@ -5,8 +5,15 @@ import org.moeaframework.core.comparator.DominanceComparator;
 import org.moeaframework.core.comparator.ParetoDominanceComparator;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 public class ListArchive extends DynamicArchive<GuardianSolution> {
@@ -44,11 +51,48 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
         return population;
     }
 
+    @Override
+    public Iterator<GuardianSolution> iterator() {
+        return stream().iterator();
+    }
+
+    @Override
+    public Spliterator<GuardianSolution> spliterator() {
+        return Stream.concat(Collections.unmodifiableList(dominatedSet).stream(),
+            Collections.unmodifiableList(paretoSet).stream()).spliterator();
+    }
+
+    @Override
+    public void forEachPareto(Consumer<? super GuardianSolution> action) {
+        paretoSet.forEach(action);
+    }
+
     @Override
     public List<GuardianSolution> paretoSet() {
         return paretoSet;
     }
 
+    @Override
+    public GuardianSolution randomParetoMember(Random random) {
+        if (paretoSet.isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        return paretoSet.get(random.nextInt(paretoSet.size()));
+    }
+
+    @Override
+    public GuardianSolution randomMember(Random random) {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The population is empty");
+        }
+        int index = random.nextInt(size());
+        if (index < paretoSet.size()) {
+            return paretoSet.get(index);
+        } else {
+            return dominatedSet.get(index - paretoSet.size());
+        }
+    }
+
     @Override
     public boolean pareto(GuardianSolution solution) {
         return paretoSet.contains(solution);
@@ -62,6 +106,7 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
     @Override
     public void clear() {
         paretoSet = new ArrayList<>();
+        paretoCleared();
         dominatedSet = new ArrayList<>();
     }
 
@@ -89,6 +134,8 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
         if (isEmpty()) {
             solution.addPropertyChangeListener(this);
             paretoSet.add(solution);
+            paretoAdded(solution);
+            solutionAdded(solution);
             return true;
         }
 
@@ -99,7 +146,9 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
             dominatedSet.add(solution);
         } else {
             paretoSet.add(solution);
+            paretoAdded(solution);
         }
+        solutionAdded(solution);
         return true;
     }
 
@@ -113,6 +162,7 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
             if (dominance == -1) {
                 dominatedSet.add(paretoSet.get(i));
                 paretoSet.remove(i);
+                paretoRemoved(currentPareto);
                 i--;
                 paretoSize--;
             } else {
@@ -142,8 +192,9 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
         // check if dominated by dominated solution
         boolean dominatedDominates = nonDominatedBecomesDominated(solution);
 
-        if(dominatedDominates || !paretoDominates){
-            paretoSet.remove(solution);
+        // the solution may already have been moved to the dominated set by a dominated solution becoming pareto
+        if((dominatedDominates || !paretoDominates) && paretoSet.remove(solution)){
+            paretoRemoved(solution);
             dominatedSet.add(solution);
         }
     }
@@ -162,6 +213,7 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
                 // does dominate become pareto?
                 if(becomesPareto(dominated)){
                     paretoSet.add(dominated);
+                    paretoAdded(dominated);
                     dominatedSet.remove(dominated);
                     i--;
                     dominatedSize--;
@@ -177,6 +229,7 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
                     }
                     if(mutual){
                         paretoSet.add(dominated);
+                        paretoAdded(dominated);
                         dominatedSet.remove(dominated);
                         i--;
                         dominatedSize--;
@@ -197,6 +250,7 @@ public class ListArchive extends DynamicArchive<GuardianSolution> {
 
         if(solutionPareto){
             paretoSet.add(solution);
+            paretoAdded(solution);
             dominatedSet.remove(solution);
         }
     }
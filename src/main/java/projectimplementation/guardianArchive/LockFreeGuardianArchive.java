@@ -0,0 +1,430 @@
+package projectimplementation.guardianArchive;
+
+import org.moeaframework.core.comparator.DominanceComparator;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * An archive which accepts solutions from many threads without blocking. Each add is classified against an
+ * immutable snapshot of the non-dominated set: a solution dominated by a snapshot member is queued straight away
+ * without writing any shared state except the queue, while a non-dominated solution replaces the snapshot with
+ * a new one using compare-and-set. A single background committer then adds the queued solutions to a
+ * {@link ConcurrentGuardianArchive}, which maintains the guardian trees and answers every query.
+ * <p>
+ * Queries reflect the solutions committed so far; {@link #flush()} waits for every pending solution. If committing
+ * a solution fails the committer stops, and the failure is rethrown by {@link #flush()} and {@link #close()}.
+ * The snapshot only speeds up classification, so when solutions are edited it is rebuilt from the committed
+ * Pareto set once the committer is idle, and may briefly disagree with it. Listeners, events, the hypervolume and
+ * the extreme points are all those of the underlying archive.
+ */
+public class LockFreeGuardianArchive extends DynamicArchive<GuardianSolution> implements AutoCloseable {
+
+    /**
+     * How long the committer sleeps when there is nothing to commit.
+     */
+    private static final long IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * The archive holding every committed solution.
+     */
+    private final ConcurrentGuardianArchive archive;
+
+    /**
+     * The latest snapshot of the non-dominated solutions which have been added.
+     */
+    private final AtomicReference<Front> front;
+
+    /**
+     * Solutions which have been added but not yet committed.
+     */
+    private final Queue<GuardianSolution> pending;
+
+    private final AtomicLong submitted;
+    private final AtomicLong committed;
+
+    /**
+     * Specifies whether a solution has been edited since the snapshot was last rebuilt.
+     */
+    private volatile boolean edited;
+
+    private volatile boolean running;
+
+    /**
+     * The first failure of the committer, or {@code null} while it has not failed.
+     */
+    private final AtomicReference<Throwable> failure;
+
+    private final Thread committer;
+
+    public LockFreeGuardianArchive(int numberOfObjectives) {
+        this(new ConcurrentGuardianArchive(numberOfObjectives));
+    }
+
+    /**
+     * Constructs an empty archive which commits to the given archive.
+     *
+     * @param archive the archive maintaining the guardian trees, which should not be modified directly
+     */
+    public LockFreeGuardianArchive(ConcurrentGuardianArchive archive) {
+        super(archive.NUMBER_OF_OBJECTIVES, archive.getComparator());
+        this.archive = archive;
+        this.front = new AtomicReference<>(Front.EMPTY);
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.submitted = new AtomicLong();
+        this.committed = new AtomicLong();
+        this.running = true;
+        this.failure = new AtomicReference<>();
+        this.committer = new Thread(this::commit, "guardian-archive-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Queues a solution to be added to the archive.
+     *
+     * @param solution the solution to be added
+     * @return {@code true} as the archive is always modified
+     */
+    @Override
+    public boolean add(GuardianSolution solution) {
+        insert(solution);
+        return true;
+    }
+
+    /**
+     * Queues a solution to be added to the archive, classifying it against the current snapshot of the
+     * non-dominated set.
+     *
+     * @param solution the solution to be added
+     * @return {@code true} if the solution was non-dominated when it was added, {@code false} otherwise
+     * @throws IllegalStateException if the archive has been closed
+     */
+    public boolean insert(GuardianSolution solution) {
+        if (solution == null || solution.getNumberOfObjectives() != this.NUMBER_OF_OBJECTIVES) {
+            throw new IllegalArgumentException();
+        }
+        if (!running) {
+            throw new IllegalStateException("The archive has been closed");
+        }
+        boolean nonDominated = true;
+
+        Front current = front.get();
+        while (true) {
+            if (current.dominates(comparator, solution)) {
+                nonDominated = false; // fast path, the snapshot is left untouched
+                break;
+            }
+            if (front.compareAndSet(current, current.with(comparator, solution))) {
+                break;
+            }
+            current = front.get();
+        }
+
+        solution.addPropertyChangeListener(this);
+        submitted.incrementAndGet();
+        pending.offer(solution);
+        return nonDominated;
+    }
+
+    /**
+     * Adds queued solutions to the archive until closed, or until adding one fails.
+     */
+    private void commit() {
+        try {
+            while (running || !pending.isEmpty()) {
+                GuardianSolution solution = pending.poll();
+                if (solution == null) {
+                    if (edited) {
+                        rebuildFront();
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                } else {
+                    archive.add(solution);
+                    committed.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Rethrows the first failure of the committer, if it has failed.
+     */
+    private void checkFailure() {
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new IllegalStateException("The committer failed", cause);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the committed Pareto set, keeping any snapshot members which are yet to be
+     * committed.
+     */
+    private void rebuildFront() {
+        edited = false;
+        Front current;
+        Front rebuilt;
+        do {
+            current = front.get();
+            rebuilt = Front.EMPTY;
+            for (GuardianSolution solution : archive.paretoSet()) {
+                rebuilt = rebuilt.with(comparator, solution);
+            }
+            for (GuardianSolution solution : current.solutions) {
+                if (!archive.contains(solution)) {
+                    rebuilt = rebuilt.with(comparator, solution);
+                }
+            }
+        } while (!front.compareAndSet(current, rebuilt));
+    }
+
+    /**
+     * Waits until every solution added so far has been committed, or the committer has stopped.
+     *
+     * @throws IllegalStateException if the committer failed
+     */
+    public void flush() {
+        long target = submitted.get();
+        while (committed.get() < target && committer.isAlive()) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Returns how many solutions have been added but not yet committed.
+     *
+     * @return the number of pending solutions
+     */
+    public long pendingSize() {
+        return submitted.get() - committed.get();
+    }
+
+    /**
+     * Returns the snapshot of the non-dominated solutions used to classify new solutions.
+     *
+     * @return the non-dominated solutions as of the latest snapshot
+     */
+    public List<GuardianSolution> frontSnapshot() {
+        return List.of(front.get().solutions);
+    }
+
+    /**
+     * Returns the archive the solutions are committed to.
+     *
+     * @return the archive maintaining the guardian trees
+     */
+    public ConcurrentGuardianArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Commits every pending solution and stops the committer. Solutions queued by an insert which raced with
+     * closing are committed by the calling thread.
+     *
+     * @throws IllegalStateException if the committer failed
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        checkFailure();
+        for (GuardianSolution solution = pending.poll(); solution != null; solution = pending.poll()) {
+            archive.add(solution);
+            committed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Edits are applied by the underlying archive, which listens to the solution itself; the snapshot is only
+     * marked for rebuilding.
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        edited = true;
+    }
+
+    @Override
+    void objectivesChanged(GuardianSolution solution) {
+        edited = true;
+    }
+
+    @Override
+    public List<GuardianSolution> getPopulation() {
+        return archive.getPopulation();
+    }
+
+    @Override
+    public List<GuardianSolution> paretoSet() {
+        return archive.paretoSet();
+    }
+
+    @Override
+    public boolean pareto(GuardianSolution solution) {
+        return archive.pareto(solution);
+    }
+
+    @Override
+    public int paretoSize() {
+        return archive.paretoSize();
+    }
+
+    @Override
+    public GuardianSolution randomParetoMember(Random random) {
+        return archive.randomParetoMember(random);
+    }
+
+    @Override
+    public GuardianSolution randomMember(Random random) {
+        return archive.randomMember(random);
+    }
+
+    /**
+     * Waits for pending solutions to be committed, then clears the archive and the snapshot.
+     */
+    @Override
+    public void clear() {
+        flush();
+        archive.clear();
+        front.set(Front.EMPTY);
+    }
+
+    @Override
+    public boolean contains(GuardianSolution solution) {
+        return archive.contains(solution);
+    }
+
+    @Override
+    public Iterator<GuardianSolution> iterator() {
+        return archive.iterator();
+    }
+
+    @Override
+    public Spliterator<GuardianSolution> spliterator() {
+        return archive.spliterator();
+    }
+
+    @Override
+    public void forEachPareto(Consumer<? super GuardianSolution> action) {
+        archive.forEachPareto(action);
+    }
+
+    @Override
+    public void addParetoChangeListener(ParetoChangeListener<GuardianSolution> listener) {
+        archive.addParetoChangeListener(listener);
+    }
+
+    @Override
+    public void removeParetoChangeListener(ParetoChangeListener<GuardianSolution> listener) {
+        archive.removeParetoChangeListener(listener);
+    }
+
+    @Override
+    public ArchiveEventPublisher<GuardianSolution> getEventPublisher() {
+        return archive.getEventPublisher();
+    }
+
+    @Override
+    public boolean hasEventPublisher() {
+        return archive.hasEventPublisher();
+    }
+
+    @Override
+    public void setEventPublisher(ArchiveEventPublisher<GuardianSolution> eventPublisher) {
+        archive.setEventPublisher(eventPublisher);
+    }
+
+    @Override
+    public void setReferencePoint(double[] referencePoint) {
+        archive.setReferencePoint(referencePoint);
+    }
+
+    @Override
+    public double hypervolume() {
+        return archive.hypervolume();
+    }
+
+    @Override
+    public double[] getIdealPoint() {
+        return archive.getIdealPoint();
+    }
+
+    @Override
+    public double[] getNadirPoint() {
+        return archive.getNadirPoint();
+    }
+
+    @Override
+    public DistanceMetric getDistanceMetric() {
+        return archive.getDistanceMetric();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return archive.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return archive.size();
+    }
+
+    /**
+     * An immutable set of mutually non-dominated solutions.
+     */
+    private static class Front {
+
+        private static final Front EMPTY = new Front(new GuardianSolution[0]);
+
+        private final GuardianSolution[] solutions;
+
+        private Front(GuardianSolution[] solutions) {
+            this.solutions = solutions;
+        }
+
+        /**
+         * Finds if a member of the snapshot dominates the solution.
+         */
+        private boolean dominates(DominanceComparator comparator, GuardianSolution solution) {
+            for (GuardianSolution member : solutions) {
+                if (comparator.compare(member, solution) == -1) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Creates a new snapshot with the solution added and every member it dominates removed.
+         */
+        private Front with(DominanceComparator comparator, GuardianSolution solution) {
+            List<GuardianSolution> kept = new ArrayList<>(solutions.length + 1);
+            for (GuardianSolution member : solutions) {
+                if (comparator.compare(solution, member) != -1) {
+                    kept.add(member);
+                }
+            }
+            kept.add(solution);
+            return new Front(kept.toArray(new GuardianSolution[0]));
+        }
+    }
+}
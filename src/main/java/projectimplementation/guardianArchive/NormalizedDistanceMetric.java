@@ -0,0 +1,46 @@
+package projectimplementation.guardianArchive;
+
+/**
+ * Base class for distance functions which scale each objective by the extent of an archive's Pareto set,
+ * so that no single objective dominates the distance.
+ */
+public abstract class NormalizedDistanceMetric implements DistanceMetric {
+
+    /**
+     * The ideal and nadir points of the archive using this distance metric.
+     */
+    private ExtremePoints extremePoints;
+
+    /**
+     * Attaches the distance metric to the extreme points of an archive.
+     *
+     * @param extremePoints the ideal and nadir points of the archive
+     */
+    void setExtremePoints(ExtremePoints extremePoints) {
+        if (this.extremePoints != null && this.extremePoints != extremePoints) {
+            throw new IllegalStateException("Normalized distance metric is already used by another archive");
+        }
+        this.extremePoints = extremePoints;
+    }
+
+    /**
+     * Finds the difference between two objective values relative to the extent of the Pareto set.
+     * The objective is left unscaled while the front has no extent in it.
+     *
+     * @param index the index of the objective
+     * @param v1    the first objective value
+     * @param v2    the second objective value
+     * @return the normalized difference between the objective values
+     */
+    protected double normalizedDifference(int index, double v1, double v2) {
+        double difference = v1 - v2;
+        if (extremePoints == null) {
+            return difference;
+        }
+        double range = extremePoints.getNadir(index) - extremePoints.getIdeal(index);
+        if (range > 0.0 && !Double.isInfinite(range)) {
+            return difference / range;
+        }
+        return difference;
+    }
+}
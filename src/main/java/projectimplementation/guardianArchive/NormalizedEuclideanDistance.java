@@ -0,0 +1,20 @@
+package projectimplementation.guardianArchive;
+
+/**
+ * The Euclidean distance function, with each objective scaled by the extent of the archive's Pareto set.
+ */
+public class NormalizedEuclideanDistance extends NormalizedDistanceMetric {
+
+    @Override
+    public double distance(DynamicSolution s1, DynamicSolution s2) {
+        double distance = 0.0;
+        double[] s1Objectives = s1.getObjectives();
+        double[] s2Objectives = s2.getObjectives();
+
+        for (int i = 0; i < s1Objectives.length; i++) {
+            distance += Math.pow(normalizedDifference(i, s1Objectives[i], s2Objectives[i]), 2.0);
+        }
+
+        return Math.sqrt(distance);
+    }
+}
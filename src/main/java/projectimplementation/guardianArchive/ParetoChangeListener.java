@@ -0,0 +1,21 @@
+package projectimplementation.guardianArchive;
+
+import java.util.List;
+
+/**
+ * Receives the changes an operation made to the Pareto set of an archive.
+ *
+ * @param <T> the type of solution stored in the archive
+ */
+@FunctionalInterface
+public interface ParetoChangeListener<T extends DynamicSolution> {
+
+    /**
+     * Called once an add or an objective edit has finished, if it changed the Pareto set.
+     * The archive must not be modified from within this method.
+     *
+     * @param entered the solutions which joined the Pareto set
+     * @param left    the solutions which left the Pareto set
+     */
+    void paretoChanged(List<T> entered, List<T> left);
+}
@@ -4,27 +4,45 @@ import org.moeaframework.core.Solution;
 import org.moeaframework.core.comparator.DominanceComparator;
 import org.moeaframework.core.comparator.ParetoDominanceComparator;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the comparisons made by an archive. The count is kept in a LongAdder, so comparisons made by the
+ * archive's parallel tasks are not lost.
+ */
 public class ParetoDominanceCounter implements DominanceComparator {
 
     private final ParetoDominanceComparator comparator;
-    private long counter;
+    private final LongAdder counter;
 
     public ParetoDominanceCounter() {
         this.comparator = new ParetoDominanceComparator();
-        this.counter = 0;
+        this.counter = new LongAdder();
     }
 
     @Override
     public int compare(Solution solution, Solution solution1) {
-        counter+=1;
+        counter.increment();
+        return comparator.compare(solution, solution1);
+    }
+
+    /**
+     * Compares two solutions without counting the comparison, for comparisons counted later by
+     * {@link #addComparisons(long)}.
+     */
+    public int compareUncounted(Solution solution, Solution solution1) {
         return comparator.compare(solution, solution1);
     }
 
+    public void addComparisons(long comparisons) {
+        counter.add(comparisons);
+    }
+
     public long getCounter() {
-        return counter;
+        return counter.sum();
     }
 
     public void resetCount() {
-        this.counter = 0;
+        this.counter.reset();
     }
 }
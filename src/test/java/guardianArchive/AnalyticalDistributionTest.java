@@ -0,0 +1,231 @@
+package guardianArchive;
+
+import Jama.Matrix;
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.AnalyticalDistribution;
+import projectimplementation.empiralAnalysis.AnalyticalSolution;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalyticalDistributionTest {
+    private static final int SAMPLES = 100000;
+    private static final double EPS = 1e-9;
+
+    /**
+     * The largest difference allowed between an estimated moment and its true value, relative to the standard
+     * deviations involved, which is at least six standard errors for the number of samples drawn.
+     */
+    private static final double TOLERANCE = 0.03;
+
+    private static final int[] DIMENSIONS = {2, 3, 8};
+
+    /**
+     * Test that the projection is only used for the covariance I - (1/d) 1 1^T.
+     */
+    @Test
+    public void testSamplerSelection() {
+        for (int d : DIMENSIONS) {
+            AnalyticalDistribution distribution = new AnalyticalDistribution(d);
+            assertTrue(distribution.isProjected());
+            assertTrue(new AnalyticalDistribution(distribution.getCovariances().copy()).isProjected());
+            assertFalse(new AnalyticalDistribution(Matrix.identity(d, d)).isProjected());
+        }
+    }
+
+    /**
+     * Test that projected samples lie on the hyperplane through the means whose entries sum to zero, which
+     * samples with covariance I - (1/d) 1 1^T always do.
+     */
+    @Test
+    public void testProjectedSamplesSumToMeans() {
+        for (int d : DIMENSIONS) {
+            AnalyticalDistribution distribution = new AnalyticalDistribution(d);
+            double[] means = new double[d];
+            double[] sample = new double[d];
+            for (int i = 0; i < d; i++) {
+                means[i] = 10.0 * i;
+            }
+            for (int n = 0; n < 1000; n++) {
+                distribution.sample(means, sample);
+                double difference = 0;
+                for (int i = 0; i < d; i++) {
+                    difference += sample[i] - means[i];
+                }
+                assertEquals(0.0, difference, EPS);
+            }
+        }
+    }
+
+    /**
+     * Test that projected samples have the same mean and covariance as samples drawn with the Cholesky factor
+     * computed by Jama.
+     */
+    @Test
+    public void testProjectedMatchesJama() {
+        Random random = new Random(1);
+        for (int d : DIMENSIONS) {
+            AnalyticalDistribution distribution = new AnalyticalDistribution(d);
+            Matrix factor = distribution.getCovariances().chol().getL();
+
+            double[] means = new double[d];
+            double[][] projected = new double[SAMPLES][d];
+            double[][] jama = new double[SAMPLES][d];
+            for (int n = 0; n < SAMPLES; n++) {
+                distribution.sample(means, projected[n]);
+                Matrix z = new Matrix(d, 1);
+                for (int i = 0; i < d; i++) {
+                    z.set(i, 0, random.nextGaussian());
+                }
+                jama[n] = factor.times(z).getColumnPackedCopy();
+            }
+
+            assertMoments(distribution.getCovariances(), projected);
+            assertMoments(distribution.getCovariances(), jama);
+            assertMoments(covariance(jama), projected);
+        }
+    }
+
+    /**
+     * Test that a covariance which cannot be projected is still sampled correctly with the Cholesky factor.
+     */
+    @Test
+    public void testCholeskySampler() {
+        Matrix covariances = new Matrix(new double[][]{{2.0, 0.5, 0.0}, {0.5, 1.0, -0.3}, {0.0, -0.3, 0.5}});
+        AnalyticalDistribution distribution = new AnalyticalDistribution(covariances);
+        assertFalse(distribution.isProjected());
+
+        double[] means = {1.0, -2.0, 3.0};
+        double[][] samples = new double[SAMPLES][3];
+        for (int n = 0; n < SAMPLES; n++) {
+            distribution.sample(means, samples[n]);
+            for (int i = 0; i < 3; i++) {
+                samples[n][i] -= means[i];
+            }
+        }
+        assertMoments(covariances, samples);
+    }
+
+    /**
+     * Test that a seed determines the sequence, however many threads generate it, and the samples drawn after it.
+     */
+    @Test
+    public void testSeededSequenceIsReproducible() throws ExecutionException, InterruptedException {
+        int dominated = 19000;
+        int nonDominated = 1000;
+        for (int d : DIMENSIONS) {
+            List<AnalyticalSolution> expected = sequence(d, 42, dominated, nonDominated, 1);
+            assertEquals(dominated + nonDominated, expected.size());
+            for (int threads : new int[]{2, 4}) {
+                List<AnalyticalSolution> actual = sequence(d, 42, dominated, nonDominated, threads);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertArrayEquals(expected.get(i).getMeans(), actual.get(i).getMeans());
+                    assertArrayEquals(expected.get(i).getObjectives(), actual.get(i).getObjectives());
+                }
+            }
+
+            List<AnalyticalSolution> other = sequence(d, 43, dominated, nonDominated, 1);
+            boolean differs = false;
+            for (int i = 0; i < expected.size() && !differs; i++) {
+                differs = expected.get(i).getObjectives()[0] != other.get(i).getObjectives()[0];
+            }
+            assertTrue(differs);
+
+            AnalyticalDistribution first = new AnalyticalDistribution(d, 7);
+            AnalyticalDistribution second = new AnalyticalDistribution(d, 7);
+            double[] means = new double[d];
+            double[] firstSample = new double[d];
+            double[] secondSample = new double[d];
+            for (int n = 0; n < 100; n++) {
+                first.sample(means, firstSample);
+                second.sample(means, secondSample);
+                assertArrayEquals(firstSample, secondSample);
+            }
+        }
+    }
+
+    /**
+     * Test that a sequence generated on demand is the same as one generated in parallel with the same seed.
+     */
+    @Test
+    public void testStreamedSequenceMatchesCalculated() {
+        int dominated = 9500;
+        int nonDominated = 500;
+        for (int d : DIMENSIONS) {
+            List<AnalyticalSolution> expected = new AnalyticalDistribution(d, 11).calculateSequence(dominated, nonDominated, 1.5);
+            AnalyticalDistribution.SequenceGenerator generator = new AnalyticalDistribution(d, 11).streamSequence(dominated, nonDominated, 1.5);
+            assertEquals(expected.size(), generator.length());
+            for (AnalyticalSolution vector : expected) {
+                assertTrue(generator.hasNext());
+                AnalyticalSolution actual = generator.next();
+                assertArrayEquals(vector.getMeans(), actual.getMeans());
+                assertArrayEquals(vector.getObjectives(), actual.getObjectives());
+            }
+            assertEquals(expected.size(), generator.generated());
+            assertFalse(generator.hasNext());
+            assertThrows(NoSuchElementException.class, generator::next);
+        }
+    }
+
+    private static List<AnalyticalSolution> sequence(int d, long seed, int dominated, int nonDominated, int threads)
+        throws ExecutionException, InterruptedException {
+        AnalyticalDistribution distribution = new AnalyticalDistribution(d, seed);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> distribution.calculateSequence(dominated, nonDominated, 1.0)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that the samples have zero mean, the given covariance and normal marginals, for which about 68.27% of
+     * samples lie within one standard deviation of the mean.
+     */
+    private static void assertMoments(Matrix expected, double[][] samples) {
+        int d = expected.getRowDimension();
+        Matrix actual = covariance(samples);
+        for (int i = 0; i < d; i++) {
+            double mean = 0;
+            int withinOneDeviation = 0;
+            double deviation = Math.sqrt(expected.get(i, i));
+            for (double[] sample : samples) {
+                mean += sample[i] / samples.length;
+                if (Math.abs(sample[i]) <= deviation) {
+                    withinOneDeviation++;
+                }
+            }
+            assertEquals(0.0, mean, TOLERANCE * deviation);
+            assertEquals(0.6827, withinOneDeviation / (double) samples.length, TOLERANCE);
+            for (int j = 0; j < d; j++) {
+                double scale = Math.sqrt(expected.get(i, i) * expected.get(j, j));
+                assertEquals(expected.get(i, j), actual.get(i, j), TOLERANCE * scale);
+            }
+        }
+    }
+
+    /**
+     * Estimates the covariance of samples with zero mean.
+     */
+    private static Matrix covariance(double[][] samples) {
+        int d = samples[0].length;
+        Matrix covariance = new Matrix(d, d);
+        for (double[] sample : samples) {
+            for (int i = 0; i < d; i++) {
+                for (int j = 0; j < d; j++) {
+                    covariance.set(i, j, covariance.get(i, j) + sample[i] * sample[j] / samples.length);
+                }
+            }
+        }
+        return covariance;
+    }
+}
@@ -0,0 +1,164 @@
+package guardianArchive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.ArchiveTraceRecorder;
+import projectimplementation.empiralAnalysis.ArchiveTraceReplayer;
+import projectimplementation.guardianArchive.ArchiveEvent;
+import projectimplementation.guardianArchive.ArchiveEventPublisher;
+import projectimplementation.guardianArchive.GuardianArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+import projectimplementation.guardianArchive.ListArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArchiveTraceTest {
+    private static final int NUM_OBJECTIVES = 3;
+    private static final int NUM_SOLUTIONS = 2000;
+
+    private Path trace;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        trace = Files.createTempFile("archive", ".trace");
+    }
+
+    /**
+     * Remove the trace where possible, as some platforms cannot delete a file while it is still mapped.
+     */
+    @AfterEach
+    public void tearDown() {
+        trace.toFile().delete();
+    }
+
+    /**
+     * Test that replaying a recorded trace against a guardian archive and a list archive ends with the same archive
+     * as the recorded one.
+     */
+    @Test
+    public void testReplayMatchesRecorded() throws IOException {
+        GuardianArchive recorded = new GuardianArchive(NUM_OBJECTIVES);
+        GuardianSolution before = new GuardianSolution(new double[]{0.5, 0.5, 0.5});
+        recorded.add(before);
+
+        int edits = 0;
+        try (ArchiveTraceRecorder<GuardianSolution> recorder = ArchiveTraceRecorder.record(recorded, trace)) {
+            Random random = new Random(1);
+            List<GuardianSolution> solutions = new ArrayList<>();
+            for (int i = 0; i < NUM_SOLUTIONS; i++) {
+                GuardianSolution solution = new GuardianSolution(random.doubles(NUM_OBJECTIVES).toArray());
+                recorded.add(solution);
+                solutions.add(solution);
+                if (random.nextBoolean()) {
+                    recorded.editObjectives(solutions.get(random.nextInt(solutions.size())), random.doubles(NUM_OBJECTIVES).toArray());
+                    edits++;
+                }
+            }
+            recorded.editObjective(before, 0, 0.25);
+            assertEquals(NUM_SOLUTIONS + edits + 1, recorder.getRecords());
+        }
+
+        ArchiveTraceReplayer replayer = new ArchiveTraceReplayer(trace);
+        assertEquals(NUM_OBJECTIVES, replayer.getNumberOfObjectives());
+        assertEquals(NUM_SOLUTIONS + edits + 1, replayer.getRecords());
+
+        long checksum = ArchiveTraceReplayer.frontChecksum(recorded);
+        ArchiveTraceReplayer.Result guardian = replayer.replay(comparator -> new GuardianArchive(NUM_OBJECTIVES, comparator));
+        ArchiveTraceReplayer.Result list = replayer.replay(comparator -> new ListArchive(NUM_OBJECTIVES, comparator));
+        for (ArchiveTraceReplayer.Result result : new ArchiveTraceReplayer.Result[]{guardian, list}) {
+            assertEquals(NUM_SOLUTIONS + edits + 1, result.getOperations());
+            assertEquals(NUM_SOLUTIONS + 1, result.getAdds());
+            assertEquals(edits, result.getEdits());
+            assertEquals(recorded.size(), result.getSize());
+            assertEquals(recorded.paretoSize(), result.getParetoSize());
+            assertEquals(checksum, result.getChecksum());
+            assertTrue(result.getComparisons() > 0);
+            assertTrue(result.getLatency(0.5) <= result.getLatency(0.99));
+            assertTrue(result.getLatency(0.99) <= result.getLatency(1));
+        }
+
+        GuardianArchive other = new GuardianArchive(NUM_OBJECTIVES);
+        other.add(new GuardianSolution(new double[]{0.5, 0.5, 0.5}));
+        assertTrue(checksum != ArchiveTraceReplayer.frontChecksum(other));
+    }
+
+    /**
+     * Test that recording subscribes to a publisher the archive already has and leaves it in place, and that a
+     * publisher given to an archive which had none is removed again when the recorder is closed.
+     */
+    @Test
+    public void testRecordingPublisher() throws IOException {
+        GuardianArchive published = new GuardianArchive(NUM_OBJECTIVES);
+        ArchiveEventPublisher<GuardianSolution> publisher = new ArchiveEventPublisher<>(Runnable::run, Flow.defaultBufferSize(), false);
+        published.setEventPublisher(publisher);
+        List<ArchiveEvent<GuardianSolution>> received = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ArchiveEvent<GuardianSolution> event) {
+                received.add(event);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        try (ArchiveTraceRecorder<GuardianSolution> recorder = ArchiveTraceRecorder.record(published, trace)) {
+            published.add(new GuardianSolution(new double[]{1, 2, 3}));
+            assertEquals(1, recorder.getRecords());
+        }
+        assertSame(publisher, published.getEventPublisher());
+        assertTrue(publisher.hasSubscribers());
+        assertTrue(received.stream().anyMatch(event -> event.getType() == ArchiveEvent.Type.ADDED));
+
+        GuardianArchive unpublished = new GuardianArchive(NUM_OBJECTIVES);
+        try (ArchiveTraceRecorder<GuardianSolution> recorder = ArchiveTraceRecorder.record(unpublished, trace)) {
+            assertTrue(unpublished.hasEventPublisher());
+            unpublished.add(new GuardianSolution(new double[]{1, 2, 3}));
+            assertEquals(1, recorder.getRecords());
+        }
+        assertFalse(unpublished.hasEventPublisher());
+    }
+
+    /**
+     * Test that a record which was only partly written is ignored, and that a file which is not a trace is rejected.
+     */
+    @Test
+    public void testIncompleteTrace() throws IOException {
+        GuardianArchive recorded = new GuardianArchive(NUM_OBJECTIVES);
+        try (ArchiveTraceRecorder<GuardianSolution> recorder = ArchiveTraceRecorder.record(recorded, trace)) {
+            recorded.add(new GuardianSolution(new double[]{1, 2, 3}));
+            recorded.add(new GuardianSolution(new double[]{3, 2, 1}));
+            assertEquals(2, recorder.getRecords());
+        }
+        Files.write(trace, new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+        ArchiveTraceReplayer.Result result = new ArchiveTraceReplayer(trace).replay(comparator -> new ListArchive(NUM_OBJECTIVES, comparator));
+        assertEquals(2, result.getOperations());
+        assertEquals(2, result.getParetoSize());
+
+        Files.write(trace, new byte[64]);
+        assertThrows(IOException.class, () -> new ArchiveTraceReplayer(trace));
+    }
+}
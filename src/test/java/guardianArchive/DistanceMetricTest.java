@@ -8,6 +8,7 @@ import projectimplementation.guardianArchive.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class DistanceMetricTest {
+    private static final double EPS = 1e-10;
 
     private DistanceMetric d1;
     private DistanceMetric d2;
@@ -57,4 +58,28 @@ public class DistanceMetricTest {
         assertEquals(10.0, d1.distance(s3, s1));
         assertEquals(14, d2.distance(s3, s1));
     }
+
+    /**
+     * Test that the normalized distance functions scale each objective by the extent of the Pareto set.
+     */
+    @Test
+    public void testNormalizedDistance() {
+        DistanceMetric n1 = new NormalizedEuclideanDistance();
+        DistanceMetric n2 = new NormalizedManhattanDistance();
+        DynamicArchive<GuardianSolution> a1 = new GuardianArchive(2, n1);
+        DynamicArchive<GuardianSolution> a2 = new ListArchive(2, n2);
+
+        GuardianSolution s1 = new GuardianSolution(new double[]{0, 40});
+        GuardianSolution s2 = new GuardianSolution(new double[]{4, 0});
+        DynamicSolution s3 = new GuardianSolution(new double[]{3, 30});
+        DynamicSolution s4 = new GuardianSolution(new double[]{6, 6});
+        a1.add(s1);
+        a1.add(s2);
+        a2.add(new GuardianSolution(new double[]{0, 40}));
+        a2.add(new GuardianSolution(new double[]{4, 0}));
+
+        // objectives are scaled by ranges of 4 and 40
+        assertEquals(Math.sqrt(0.75 * 0.75 + 0.6 * 0.6), n1.distance(s3, s4), EPS);
+        assertEquals(0.75 + 0.6, n2.distance(s3, s4), EPS);
+    }
 }
@@ -0,0 +1,195 @@
+package guardianArchive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.Experiment;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExperimentTest {
+    private static final String FILENAME = "results.dat";
+    private static final int DOMINATED = 45;
+    private static final int NON_DOMINATED = 5;
+    private static final long SEED = 7;
+
+    /**
+     * The repetitions of an experiment, ten of each of its four simulations.
+     */
+    private static final int REPETITIONS = 40;
+
+    private Path directory;
+    private ForkJoinPool pool;
+
+    /**
+     * A pool which has been shut down, so an experiment given it fails if it runs any repetition.
+     */
+    private ForkJoinPool shutDown;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("experiment");
+        pool = new ForkJoinPool(2);
+        shutDown = new ForkJoinPool(1);
+        shutDown.shutdown();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Test that an experiment interrupted after some of its repetitions were checkpointed only runs the missing
+     * ones when resumed, writes the same results as an uninterrupted run and then removes its checkpoints.
+     */
+    @Test
+    public void testResumeMatchesUninterrupted() throws IOException {
+        Path uninterrupted = directory.resolve("uninterrupted");
+        assertTrue(experiment(uninterrupted, SEED).runSimulations(pool));
+
+        Path resumed = directory.resolve("resumed");
+        experiment(resumed, SEED).runShard(pool, 0, 3, 0); // stands in for a run interrupted after a third
+        assertTrue(Files.isDirectory(resumed.resolve(FILENAME + ".checkpoint")));
+        assertFalse(Files.exists(resumed.resolve(FILENAME)));
+
+        assertTrue(experiment(resumed, SEED).runSimulations(pool));
+        assertEquals(untimedColumns(uninterrupted.resolve(FILENAME)), untimedColumns(resumed.resolve(FILENAME)));
+        assertTrue(Files.exists(resumed.resolve(FILENAME + ".done")));
+        assertFalse(Files.exists(resumed.resolve(FILENAME + ".partial")));
+        assertFalse(Files.exists(resumed.resolve(FILENAME + ".checkpoint")));
+        assertFalse(Files.exists(uninterrupted.resolve(FILENAME + ".checkpoint")));
+    }
+
+    /**
+     * Test that running every shard checkpoints each repetition exactly once, so merging them runs nothing and
+     * writes the same results as an uninterrupted run.
+     */
+    @Test
+    public void testShardsCoverEveryRepetitionOnce() throws IOException {
+        Path uninterrupted = directory.resolve("uninterrupted");
+        assertTrue(experiment(uninterrupted, SEED).runSimulations(pool));
+
+        Path sharded = directory.resolve("sharded");
+        Path checkpoints = sharded.resolve(FILENAME + ".checkpoint");
+        int shards = 3;
+        int repetitions = 0;
+        for (int k = 0; k < shards; k++) {
+            repetitions += experiment(sharded, SEED).runShard(pool, k, shards, 1);
+            try (Stream<Path> files = Files.list(checkpoints)) {
+                assertEquals(repetitions, files.count());
+            }
+        }
+        assertEquals(REPETITIONS, repetitions);
+
+        assertTrue(experiment(sharded, SEED).runSimulations(shutDown));
+        assertEquals(untimedColumns(uninterrupted.resolve(FILENAME)), untimedColumns(sharded.resolve(FILENAME)));
+    }
+
+    /**
+     * Test that partial results left by an interrupted run are truncated by the first simulation written.
+     */
+    @Test
+    public void testPartialResultsTruncated() throws IOException {
+        Path uninterrupted = directory.resolve("uninterrupted");
+        assertTrue(experiment(uninterrupted, SEED).runSimulations(pool));
+
+        Path resumed = directory.resolve("resumed");
+        Files.createDirectories(resumed);
+        Files.write(resumed.resolve(FILENAME + ".partial"), Arrays.asList("1 2 3 4 5", "6 7 8 9 10"));
+        assertTrue(experiment(resumed, SEED).runSimulations(pool));
+        assertEquals(untimedColumns(uninterrupted.resolve(FILENAME)), untimedColumns(resumed.resolve(FILENAME)));
+    }
+
+    /**
+     * Test that an experiment with a completion marker is skipped without running anything.
+     */
+    @Test
+    public void testSkipsFinished() throws IOException {
+        Files.write(directory.resolve(FILENAME + ".done"), "finished\n".getBytes(StandardCharsets.UTF_8));
+        assertFalse(experiment(directory, SEED).runSimulations(shutDown));
+        assertEquals(0, experiment(directory, SEED).runShard(shutDown, 0, 1, 0));
+        assertFalse(Files.exists(directory.resolve(FILENAME)));
+    }
+
+    /**
+     * Test that results written without a completion marker are never overwritten.
+     */
+    @Test
+    public void testKeepsUnmarkedResults() throws IOException {
+        List<String> unmarked = Arrays.asList("1 2 3 4 5", "6 7 8 9 10");
+        Files.write(directory.resolve(FILENAME), unmarked);
+        assertFalse(experiment(directory, SEED).runSimulations(shutDown));
+        assertEquals(0, experiment(directory, SEED).runShard(shutDown, 0, 1, 0));
+        assertEquals(unmarked, Files.readAllLines(directory.resolve(FILENAME)));
+        assertFalse(Files.exists(directory.resolve(FILENAME + ".checkpoint")));
+        assertFalse(Files.exists(directory.resolve(FILENAME + ".done")));
+    }
+
+    /**
+     * Test that a checkpoint written by another version is run again rather than merged.
+     */
+    @Test
+    public void testDiscardsStaleCheckpoints() throws IOException {
+        Path uninterrupted = directory.resolve("uninterrupted");
+        assertTrue(experiment(uninterrupted, SEED).runSimulations(pool));
+
+        Path resumed = directory.resolve("resumed");
+        experiment(resumed, SEED).runShard(pool, 0, 1, 0);
+        try (RandomAccessFile checkpoint = new RandomAccessFile(resumed.resolve(FILENAME + ".checkpoint").resolve("sim0_rep0.bin").toFile(), "rw")) {
+            checkpoint.writeInt(1);
+        }
+        assertThrows(RejectedExecutionException.class, () -> experiment(resumed, SEED).runSimulations(shutDown));
+        assertTrue(experiment(resumed, SEED).runSimulations(pool));
+        assertEquals(untimedColumns(uninterrupted.resolve(FILENAME)), untimedColumns(resumed.resolve(FILENAME)));
+    }
+
+    /**
+     * Test that a seeded experiment runs again the checkpoints saved with another seed, while an unseeded one
+     * merges them.
+     */
+    @Test
+    public void testRerunsCheckpointsOfAnotherSeed() {
+        experiment(directory, SEED).runShard(pool, 0, 1, 0);
+        assertThrows(RejectedExecutionException.class, () -> experiment(directory, SEED + 1).runSimulations(shutDown));
+
+        Experiment unseeded = new Experiment(2, 0, DOMINATED, NON_DOMINATED, 1.0, Experiment.ArchiveType.GUARDIAN, FILENAME);
+        unseeded.setOutputDirectory(directory);
+        assertTrue(unseeded.runSimulations(shutDown));
+    }
+
+    private static Experiment experiment(Path directory, long seed) {
+        Experiment experiment = new Experiment(2, 0, DOMINATED, NON_DOMINATED, 1.0, Experiment.ArchiveType.GUARDIAN, seed, FILENAME);
+        experiment.setOutputDirectory(directory);
+        return experiment;
+    }
+
+    /**
+     * Reads the columns of the results which do not depend on how long the archive took: the comparisons, the
+     * timestep and the Pareto set size.
+     */
+    private static List<String> untimedColumns(Path results) throws IOException {
+        return Files.readAllLines(results).stream()
+            .map(line -> String.join(" ", Arrays.copyOfRange(line.split(" "), 1, 4)))
+            .collect(Collectors.toList());
+    }
+}
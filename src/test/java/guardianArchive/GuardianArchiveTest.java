@@ -10,10 +10,17 @@ import projectimplementation.guardianArchive.*;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static projectimplementation.guardianArchive.GuardianAssignment.*;
@@ -27,7 +34,7 @@ public class GuardianArchiveTest {
     private static final int numObjectives = 2;
 
 
-    private static final List<GuardianAssignment[]> combinations = new ArrayList<>(Arrays.asList(new GuardianAssignment[]{FIRST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{CLOSEST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{FEWEST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{FIRST, FIRST, FIRST, FIRST, FIRST, FIRST}, new GuardianAssignment[]{CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST}, new GuardianAssignment[]{FEWEST, FEWEST, FEWEST, FEWEST, FEWEST, FEWEST}));
+    private static final List<GuardianAssignment[]> combinations = new ArrayList<>(Arrays.asList(new GuardianAssignment[]{FIRST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{CLOSEST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{FEWEST, OPTIMAL, FIRST, OPTIMAL, OPTIMAL, OPTIMAL}, new GuardianAssignment[]{FIRST, FIRST, FIRST, FIRST, FIRST, FIRST}, new GuardianAssignment[]{CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST, CLOSEST}, new GuardianAssignment[]{FEWEST, FEWEST, FEWEST, FEWEST, FEWEST, FEWEST}, new GuardianAssignment[]{DEEPEST, DEEPEST, DEEPEST, DEEPEST, DEEPEST, DEEPEST}, new GuardianAssignment[]{SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE, SMALLEST_SUBTREE}));
     /**
      * The population being tested.
      */
@@ -540,6 +547,32 @@ public class GuardianArchiveTest {
         assertTrue(checkAllDominatedHaveParent());
     }
 
+    /**
+     * Add numerous random solutions and then change their objective values to random new values.
+     * Will mostly consists of dominated points due to the random nature.
+     */
+    @Test
+    public void editObjectivesC7() {
+        population = new GuardianArchive(numObjectives, combinations.get(6));
+        populateRandom(population);
+        editObjectivesChanged(population);
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
+    /**
+     * Add numerous random solutions and then change their objective values to random new values.
+     * Will mostly consists of dominated points due to the random nature.
+     */
+    @Test
+    public void editObjectivesC8() {
+        population = new GuardianArchive(numObjectives, combinations.get(7));
+        populateRandom(population);
+        editObjectivesChanged(population);
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
     private void populateRandom(DynamicArchive<GuardianSolution> population) {
         double[] objectives;
 
@@ -633,6 +666,76 @@ public class GuardianArchiveTest {
         assertTrue(checkAllDominatedHaveParent());
     }
 
+    /**
+     * Add pre-determined solutions to the population,
+     * and then sequentially change their objectives to pre-determined values to cover multiple scenarios
+     */
+    @Test
+    public void editObjectivesScenariosC7() {
+        population = new GuardianArchive(numObjectives, combinations.get(6));
+        editObjectivesScenarios(population);
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
+    /**
+     * Add pre-determined solutions to the population,
+     * and then sequentially change their objectives to pre-determined values to cover multiple scenarios
+     */
+    @Test
+    public void editObjectivesScenariosC8() {
+        population = new GuardianArchive(numObjectives, combinations.get(7));
+        editObjectivesScenarios(population);
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
+    /**
+     * Test that DEEPEST and SMALLEST_SUBTREE choose the expected guardian in a known tree. Below the Pareto member
+     * {0, 0} the tree is a -> a1 -> a2 and c -> c1 -> c2 -> c3, and {4, 6} is dominated by a, a1, c, c1 and c2,
+     * which are at depths 1, 2, 1, 2 and 3 and have subtrees of 3, 2, 4, 3 and 2 solutions.
+     */
+    @Test
+    public void testDeepestAndSmallestSubtree() throws ReflectiveOperationException {
+        Method getParent = GuardianSolution.class.getDeclaredMethod("getParent");
+        Method getSubtreeSize = GuardianSolution.class.getDeclaredMethod("getSubtreeSize");
+        getParent.setAccessible(true);
+        getSubtreeSize.setAccessible(true);
+
+        for (GuardianAssignment option : new GuardianAssignment[]{DEEPEST, SMALLEST_SUBTREE}) {
+            population = new GuardianArchive(numObjectives, new GuardianAssignment[]{option, option, option, option, option, option});
+            GuardianSolution root = new GuardianSolution(new double[]{0, 0});
+            GuardianSolution a = new GuardianSolution(new double[]{1, 3});
+            GuardianSolution a1 = new GuardianSolution(new double[]{2, 4});
+            GuardianSolution a2 = new GuardianSolution(new double[]{2.5, 9});
+            GuardianSolution c = new GuardianSolution(new double[]{3, 1});
+            GuardianSolution c1 = new GuardianSolution(new double[]{3.5, 2});
+            GuardianSolution c2 = new GuardianSolution(new double[]{3.7, 2.5});
+            GuardianSolution c3 = new GuardianSolution(new double[]{9, 2.8});
+            for (GuardianSolution solution : new GuardianSolution[]{root, a, c, a1, a2, c1, c2, c3}) {
+                population.add(solution);
+            }
+            assertSame(a, getParent.invoke(a1));
+            assertSame(a1, getParent.invoke(a2));
+            assertSame(c1, getParent.invoke(c2));
+            assertSame(c2, getParent.invoke(c3));
+            if (option == SMALLEST_SUBTREE) {
+                assertEquals(3, getSubtreeSize.invoke(a));
+                assertEquals(4, getSubtreeSize.invoke(c));
+                assertEquals(3, getSubtreeSize.invoke(c1));
+            } else {
+                assertEquals(1, getSubtreeSize.invoke(c)); // only counted for SMALLEST_SUBTREE
+            }
+
+            GuardianSolution solution = new GuardianSolution(new double[]{4, 6});
+            population.add(solution);
+            assertSame(option == DEEPEST ? c2 : a1, getParent.invoke(solution));
+            assertEquals(option == SMALLEST_SUBTREE ? population.size() : 1, getSubtreeSize.invoke(root));
+            assertTrue(checkGuardianDominates());
+            assertTrue(checkAllDominatedHaveParent());
+        }
+    }
+
     private void editObjectivesScenarios(DynamicArchive<GuardianSolution> population) {
         GuardianSolution s0 = new GuardianSolution(new double[]{9, 12});
         GuardianSolution s1 = new GuardianSolution(new double[]{10, 9});
@@ -1022,6 +1125,685 @@ public class GuardianArchiveTest {
         assertTrue(population.isEmpty());
     }
 
+    /**
+     * Test that the ideal and nadir points match those of the Pareto set as solutions are added and edited.
+     */
+    @Test
+    public void testIdealAndNadirPoints() {
+        population = new GuardianArchive(numObjectives);
+        List<GuardianSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < numSolutions / 10; i++) {
+            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            population.add(solution);
+            solutions.add(solution);
+
+            GuardianSolution edited = solutions.get(ThreadLocalRandom.current().nextInt(solutions.size()));
+            population.editObjectives(edited, ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+
+            double[] ideal = new double[numObjectives];
+            double[] nadir = new double[numObjectives];
+            Arrays.fill(ideal, Double.POSITIVE_INFINITY);
+            Arrays.fill(nadir, Double.NEGATIVE_INFINITY);
+            for (GuardianSolution pareto : population.paretoSet()) {
+                for (int j = 0; j < numObjectives; j++) {
+                    ideal[j] = Math.min(ideal[j], pareto.getObjective(j));
+                    nadir[j] = Math.max(nadir[j], pareto.getObjective(j));
+                }
+            }
+            assertArrayEquals(ideal, population.getIdealPoint(), EPS);
+            assertArrayEquals(nadir, population.getNadirPoint(), EPS);
+        }
+    }
+
+    /**
+     * Test that an edit which moves a solution onto the front records its extremes once, leaving no objective to be
+     * recalculated from the whole front.
+     */
+    @Test
+    public void testEditOntoFrontUpdatesExtremesOnce() throws ReflectiveOperationException {
+        population = new GuardianArchive(2);
+        population.add(new GuardianSolution(new double[]{0, 3}));
+        population.add(new GuardianSolution(new double[]{3, 0}));
+        GuardianSolution dominated = new GuardianSolution(new double[]{4, 4});
+        population.add(dominated);
+
+        population.editObjectives(dominated, new double[]{-1, 5});
+        assertTrue(population.paretoSet().contains(dominated));
+
+        Field extremePoints = DynamicArchive.class.getDeclaredField("extremePoints");
+        Field anyStale = ExtremePoints.class.getDeclaredField("anyStale");
+        extremePoints.setAccessible(true);
+        anyStale.setAccessible(true);
+        assertFalse(anyStale.getBoolean(extremePoints.get(population)));
+        assertArrayEquals(new double[]{-1, 0}, population.getIdealPoint(), EPS);
+        assertArrayEquals(new double[]{3, 5}, population.getNadirPoint(), EPS);
+    }
+
+    /**
+     * Test that the changes reported to a Pareto change listener reproduce the Pareto set.
+     */
+    @Test
+    public void testParetoChangeListener() {
+        population = new GuardianArchive(numObjectives);
+        Set<GuardianSolution> front = Collections.newSetFromMap(new IdentityHashMap<>());
+        population.addParetoChangeListener((entered, left) -> {
+            assertFalse(entered.isEmpty() && left.isEmpty());
+            for (GuardianSolution solution : left) {
+                assertTrue(front.remove(solution));
+            }
+            for (GuardianSolution solution : entered) {
+                assertTrue(front.add(solution));
+            }
+        });
+
+        List<GuardianSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < numSolutions / 10; i++) {
+            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            population.add(solution);
+            solutions.add(solution);
+            assertEquals(population.paretoSize(), front.size());
+            assertTrue(front.containsAll(population.paretoSet()));
+
+            GuardianSolution edited = solutions.get(ThreadLocalRandom.current().nextInt(solutions.size()));
+            population.editObjectives(edited, ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            assertEquals(population.paretoSize(), front.size());
+            assertTrue(front.containsAll(population.paretoSet()));
+        }
+    }
+
+    /**
+     * Test that subscribers to the archive's events receive every add, edit and change to the Pareto set.
+     */
+    @Test
+    public void testEventPublisher() {
+        population = new GuardianArchive(numObjectives);
+        population.setEventPublisher(new ArchiveEventPublisher<>(Runnable::run, 1024, false));
+        Map<ArchiveEvent.Type, Integer> counts = new EnumMap<>(ArchiveEvent.Type.class);
+        population.getEventPublisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ArchiveEvent<GuardianSolution> event) {
+                counts.merge(event.getType(), 1, Integer::sum);
+                if (event.getType() == ArchiveEvent.Type.REPARENTED && event.getGuardian() != null) {
+                    assertEquals(-1, population.getComparator().compare(event.getGuardian(), event.getSolution()));
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        populateRandom(population);
+        editObjectivesChanged(population);
+
+        assertEquals(numSolutions, counts.get(ArchiveEvent.Type.ADDED));
+        assertEquals(numSolutions, counts.get(ArchiveEvent.Type.EDITED));
+        assertEquals(population.paretoSize(), counts.get(ArchiveEvent.Type.ENTERED_FRONT) - counts.get(ArchiveEvent.Type.LEFT_FRONT));
+        assertTrue(counts.get(ArchiveEvent.Type.REPARENTED) > 0);
+        assertEquals(0, population.getEventPublisher().getDroppedEvents());
+    }
+
+    /**
+     * Test that the publisher counts a subscriber until it cancels, and stops counting every subscriber once closed,
+     * so archives only create events while someone receives them.
+     */
+    @Test
+    public void testEventPublisherSubscribers() {
+        ArchiveEventPublisher<GuardianSolution> publisher = new ArchiveEventPublisher<>(Runnable::run, 16, true);
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        Flow.Subscriber<ArchiveEvent<GuardianSolution>> subscriber = new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions.add(subscription);
+            }
+
+            @Override
+            public void onNext(ArchiveEvent<GuardianSolution> event) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+
+        assertFalse(publisher.hasSubscribers());
+        publisher.subscribe(subscriber);
+        assertTrue(publisher.hasSubscribers());
+        subscriptions.get(0).cancel();
+        subscriptions.get(0).cancel();
+        assertFalse(publisher.hasSubscribers());
+
+        // subscribing twice is refused, and is not counted whichever subscription the JDK fails
+        publisher.subscribe(subscriber);
+        publisher.subscribe(subscriber);
+        assertEquals(1, errors.size());
+        subscriptions.forEach(Flow.Subscription::cancel);
+        assertFalse(publisher.hasSubscribers());
+
+        publisher.subscribe(subscriber);
+        assertTrue(publisher.hasSubscribers());
+        publisher.close();
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    /**
+     * Test that random members are drawn from the whole population and random Pareto members from the Pareto set.
+     */
+    @Test
+    public void testRandomMember() {
+        Random random = new Random(1);
+        Set<GuardianSolution> sampled = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<GuardianSolution> sampledPareto = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 1000; i++) {
+            GuardianSolution member = population.randomMember(random);
+            GuardianSolution paretoMember = population.randomParetoMember(random);
+            assertTrue(population.contains(member));
+            assertTrue(population.pareto(paretoMember));
+            sampled.add(member);
+            sampledPareto.add(paretoMember);
+        }
+        assertEquals(population.size(), sampled.size());
+        assertEquals(population.paretoSize(), sampledPareto.size());
+
+        population.clear();
+        assertThrows(NoSuchElementException.class, () -> population.randomMember(random));
+        assertThrows(NoSuchElementException.class, () -> population.randomParetoMember(random));
+    }
+
+    /**
+     * Test that iterating, streaming and visiting the Pareto set cover the same solutions as the materialized lists.
+     */
+    @Test
+    public void testStream() {
+        population = new GuardianArchive(numObjectives);
+        populateRandom(population);
+        editObjectivesChanged(population);
+
+        Set<GuardianSolution> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(population.getPopulation());
+
+        Set<GuardianSolution> iterated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GuardianSolution solution : population) {
+            iterated.add(solution);
+        }
+        assertEquals(all, iterated);
+        assertEquals(population.size(), population.stream().count());
+        assertEquals(all, population.parallelStream().collect(() -> Collections.newSetFromMap(new IdentityHashMap<>()), Set::add, Set::addAll));
+
+        List<GuardianSolution> pareto = new ArrayList<>();
+        population.forEachPareto(pareto::add);
+        assertEquals(population.paretoSet(), pareto);
+    }
+
+    /**
+     * Test that a concurrent archive remains consistent when solutions are added and edited from several threads,
+     * while other threads read its snapshots.
+     */
+    @Test
+    public void testConcurrentArchive() throws InterruptedException {
+        population = new ConcurrentGuardianArchive(numObjectives);
+        int threads = 4;
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            writers.add(new Thread(() -> {
+                List<GuardianSolution> own = new ArrayList<>();
+                for (int i = 0; i < numSolutions / threads; i++) {
+                    GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+                    population.add(solution);
+                    own.add(solution);
+                    own.get(ThreadLocalRandom.current().nextInt(own.size())).setObjectives(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                while (writers.stream().anyMatch(Thread::isAlive)) {
+                    List<GuardianSolution> pareto = population.paretoSet();
+                    assertTrue(pareto.size() <= population.size());
+                    for (GuardianSolution solution : pareto) {
+                        assertTrue(population.contains(solution));
+                    }
+                }
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+
+        writers.forEach(Thread::start);
+        reader.start();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        reader.join();
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(numSolutions, population.size());
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
+    /**
+     * Test that a concurrent archive copies its Pareto set once per change, on the first read after it, and that
+     * clearing it releases its lock from the removed solutions.
+     */
+    @Test
+    public void testConcurrentArchiveSnapshot() throws ReflectiveOperationException {
+        population = new ConcurrentGuardianArchive(2);
+        GuardianSolution first = new GuardianSolution(new double[]{0, 3});
+        GuardianSolution second = new GuardianSolution(new double[]{3, 0});
+        population.add(first);
+        population.add(second);
+        population.add(new GuardianSolution(new double[]{4, 4}));
+        assertEquals(2, population.paretoSize());
+        assertEquals(3, population.size());
+
+        List<GuardianSolution> pareto = population.paretoSet();
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(pareto));
+        assertSame(pareto, population.paretoSet());
+        population.add(new GuardianSolution(new double[]{5, 5}));
+        assertSame(pareto, population.paretoSet());
+
+        population.editObjectives(second, new double[]{1, 4});
+        assertEquals(1, population.paretoSize());
+        assertNotSame(pareto, population.paretoSet());
+        assertEquals(Collections.singletonList(first), population.paretoSet());
+
+        Field objectivesLock = DynamicSolution.class.getDeclaredField("objectivesLock");
+        objectivesLock.setAccessible(true);
+        assertNotNull(objectivesLock.get(first));
+        population.clear();
+        assertTrue(population.isEmpty());
+        assertTrue(population.paretoSet().isEmpty());
+        assertNull(objectivesLock.get(first));
+        assertNull(objectivesLock.get(second));
+    }
+
+    /**
+     * Test that a lock free archive classifies solutions added from several threads against its snapshot, and
+     * that once flushed its committed guardian trees agree with the snapshot.
+     */
+    @Test
+    public void testLockFreeArchive() throws InterruptedException {
+        int threads = 4;
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        try (LockFreeGuardianArchive archive = new LockFreeGuardianArchive(numObjectives)) {
+            for (int t = 0; t < threads; t++) {
+                writers.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < numSolutions / threads; i++) {
+                            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+                            if (!archive.insert(solution)) {
+                                assertFalse(archive.frontSnapshot().contains(solution));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            archive.flush();
+
+            assertTrue(errors.isEmpty(), errors.toString());
+            assertEquals(0, archive.pendingSize());
+            assertEquals(numSolutions, archive.size());
+            assertEquals(new HashSet<>(archive.frontSnapshot()), new HashSet<>(archive.paretoSet()));
+
+            GuardianSolution edited = archive.paretoSet().get(0);
+            archive.editObjectives(edited, new double[]{2, 2});
+            archive.insert(new GuardianSolution(new double[]{1.5, 1.5}));
+            archive.flush();
+            population = archive.getArchive();
+            assertFalse(population.pareto(edited));
+            assertTrue(checkGuardianDominates());
+            assertTrue(checkAllDominatedHaveParent());
+        }
+    }
+
+    /**
+     * Test that a failure of a lock free archive's committer is rethrown by flush and close rather than leaving
+     * them waiting, and that a closed archive refuses further solutions.
+     */
+    @Test
+    public void testLockFreeArchiveFailure() {
+        IllegalArgumentException rejected = new IllegalArgumentException("rejected");
+        ConcurrentGuardianArchive failing = new ConcurrentGuardianArchive(2) {
+            @Override
+            public boolean add(GuardianSolution solution) {
+                throw rejected;
+            }
+        };
+        LockFreeGuardianArchive archive = new LockFreeGuardianArchive(failing);
+        archive.insert(new GuardianSolution(new double[]{1, 1}));
+
+        IllegalStateException flushed = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(IllegalStateException.class, archive::flush));
+        assertSame(rejected, flushed.getCause());
+        IllegalStateException closed = assertThrows(IllegalStateException.class, archive::close);
+        assertSame(rejected, closed.getCause());
+        assertThrows(IllegalStateException.class, () -> archive.insert(new GuardianSolution(new double[]{0, 0})));
+    }
+
+    /**
+     * Test that an actor applies adds and edits from several producers in order, coalescing repeated edits,
+     * and leaves the guardian trees consistent.
+     */
+    @Test
+    public void testArchiveActor() throws Exception {
+        int threads = 4;
+        List<Thread> producers = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        Map<GuardianSolution, double[]> finalObjectives = Collections.synchronizedMap(new IdentityHashMap<>());
+        ArchiveActor<GuardianSolution> actor = new ArchiveActor<>(new GuardianArchive(numObjectives), 64, 16);
+        for (int t = 0; t < threads; t++) {
+            producers.add(new Thread(() -> {
+                try {
+                    List<GuardianSolution> own = new ArrayList<>();
+                    for (int i = 0; i < numSolutions / threads; i++) {
+                        GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+                        assertTrue(actor.submitAdd(solution).get());
+                        own.add(solution);
+                        for (int j = 0; j < 3; j++) {
+                            GuardianSolution edited = own.get(ThreadLocalRandom.current().nextInt(own.size()));
+                            double[] objectives = ThreadLocalRandom.current().doubles().limit(numObjectives).toArray();
+                            while (!actor.offerEdit(edited, objectives)) {
+                                Thread.yield();
+                            }
+                            finalObjectives.put(edited, objectives);
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(numSolutions, (int) actor.query(DynamicArchive::size).get());
+        actor.close();
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(0, actor.getFailedRequests());
+        assertThrows(IllegalStateException.class, () -> actor.offerAdd(new GuardianSolution(new double[]{0, 0})));
+        for (Map.Entry<GuardianSolution, double[]> entry : finalObjectives.entrySet()) {
+            assertArrayEquals(entry.getValue(), entry.getKey().getObjectives());
+        }
+        population = actor.getArchive();
+        assertEquals(numSolutions, population.size());
+        assertTrue(checkGuardianDominates());
+        assertTrue(checkAllDominatedHaveParent());
+    }
+
+    /**
+     * Test that closing an actor while producers are submitting to it, and waiting for space in its queue, applies
+     * every request which was accepted and refuses the rest.
+     */
+    @Test
+    public void testArchiveActorCloseRace() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            int threads = 4;
+            ArchiveActor<GuardianSolution> actor = new ArchiveActor<>(new GuardianArchive(numObjectives), 4, 2);
+            List<CompletableFuture<Boolean>> accepted = Collections.synchronizedList(new ArrayList<>());
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                producers.add(new Thread(() -> {
+                    started.countDown();
+                    try {
+                        while (true) {
+                            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+                            accepted.add(actor.submitAdd(solution));
+                        }
+                    } catch (IllegalStateException e) {
+                        // closed
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            started.await();
+            Thread.sleep(round % 5);
+            actor.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertTrue(errors.isEmpty(), errors.toString());
+            for (CompletableFuture<Boolean> future : accepted) {
+                assertTrue(future.isDone());
+            }
+            assertEquals(accepted.size(), actor.getArchive().size());
+        }
+    }
+
+    /**
+     * Test that an actor interrupted while closing still applies the requests queued before it was closed.
+     */
+    @Test
+    public void testArchiveActorInterruptedClose() throws Exception {
+        ArchiveActor<GuardianSolution> actor = new ArchiveActor<>(new GuardianArchive(numObjectives), 64, 16);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocked = actor.query(archive -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        List<CompletableFuture<Boolean>> adds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            adds.add(actor.submitAdd(new GuardianSolution(new double[]{i, 10 - i})));
+        }
+
+        boolean[] interrupted = new boolean[1];
+        Thread closer = new Thread(() -> {
+            actor.close();
+            interrupted[0] = Thread.currentThread().isInterrupted();
+        });
+        closer.start();
+        while (closer.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        closer.interrupt();
+        closer.join(100);
+        assertTrue(closer.isAlive()); // still waiting for the owner
+        release.countDown();
+        closer.join();
+
+        assertTrue(interrupted[0]);
+        for (CompletableFuture<Boolean> add : adds) {
+            assertTrue(add.isDone());
+        }
+        assertTrue(blocked.get());
+        assertEquals(10, actor.getArchive().size());
+    }
+
+    /**
+     * Test that scanning a large Pareto set in parallel builds exactly the same guardian trees, with the same
+     * number of comparisons, as scanning it sequentially, for every combination of guardian assignments.
+     */
+    @Test
+    public void testParallelScan() throws ReflectiveOperationException {
+        for (GuardianAssignment[] combination : combinations) {
+            ParetoDominanceCounter parallelCounter = new ParetoDominanceCounter();
+            ParetoDominanceCounter sequentialCounter = new ParetoDominanceCounter();
+            GuardianArchive parallel = new GuardianArchive(numObjectives, parallelCounter, DuplicateMode.ALLOW_DUPLICATES, new ManhattanDistance(), combination);
+            GuardianArchive sequential = new GuardianArchive(numObjectives, sequentialCounter, DuplicateMode.ALLOW_DUPLICATES, new ManhattanDistance(), combination);
+            parallel.setParallelThreshold(0);
+            sequential.setParallelThreshold(Integer.MAX_VALUE);
+
+            Random random = new Random(5);
+            List<GuardianSolution> parallelSolutions = new ArrayList<>();
+            List<GuardianSolution> sequentialSolutions = new ArrayList<>();
+            for (int i = 0; i < numSolutions / 2; i++) {
+                double[] objectives = nearlyNonDominated(random);
+                parallelSolutions.add(new GuardianSolution(objectives));
+                sequentialSolutions.add(new GuardianSolution(objectives));
+                parallel.add(parallelSolutions.get(i));
+                sequential.add(sequentialSolutions.get(i));
+
+                if (i % 10 == 0) {
+                    int edited = random.nextInt(i + 1);
+                    objectives = nearlyNonDominated(random);
+                    parallel.editObjectives(parallelSolutions.get(edited), objectives);
+                    sequential.editObjectives(sequentialSolutions.get(edited), objectives);
+                }
+            }
+
+            assertTrue(parallel.paretoSize() > 2048);
+            assertSameTrees(sequential, sequentialSolutions, parallel, parallelSolutions);
+            assertEquals(sequentialCounter.getCounter(), parallelCounter.getCounter());
+        }
+    }
+
+    /**
+     * Test that re-homing the children of an edited hub in parallel builds exactly the same guardian trees as
+     * re-homing them sequentially, for every combination of guardian assignments.
+     */
+    @Test
+    public void testParallelRehome() throws ReflectiveOperationException {
+        for (GuardianAssignment[] combination : combinations) {
+            GuardianArchive parallel = new GuardianArchive(numObjectives, combination);
+            GuardianArchive sequential = new GuardianArchive(numObjectives, combination);
+            parallel.setParallelRehomeThreshold(0);
+            sequential.setParallelRehomeThreshold(Integer.MAX_VALUE);
+
+            Random random = new Random(7);
+            List<double[]> objectives = new ArrayList<>();
+            objectives.add(new double[]{0, 0});
+            for (int i = 0; i < numSolutions / 4; i++) {
+                objectives.add(new double[]{random.nextDouble(), random.nextDouble()});
+            }
+            objectives.add(new double[]{-1, -1});
+
+            List<GuardianSolution> parallelSolutions = new ArrayList<>();
+            List<GuardianSolution> sequentialSolutions = new ArrayList<>();
+            for (int i = 0; i < objectives.size(); i++) {
+                parallelSolutions.add(new GuardianSolution(objectives.get(i)));
+                sequentialSolutions.add(new GuardianSolution(objectives.get(i)));
+                if (i == objectives.size() - 1) {
+                    // edit the hub while it is non dominated, before it gains a guardian
+                    parallel.editObjectives(parallelSolutions.get(0), new double[]{0.001, 0.001});
+                    sequential.editObjectives(sequentialSolutions.get(0), new double[]{0.001, 0.001});
+                }
+                parallel.add(parallelSolutions.get(i));
+                sequential.add(sequentialSolutions.get(i));
+            }
+            for (double[] edit : new double[][]{{0.002, 0.002}, {0.5, 0.5}, {0.9, 0.1}}) {
+                parallel.editObjectives(parallelSolutions.get(0), edit);
+                sequential.editObjectives(sequentialSolutions.get(0), edit);
+            }
+
+            assertSameTrees(sequential, sequentialSolutions, parallel, parallelSolutions);
+            population = parallel;
+            assertTrue(checkGuardianDominates());
+            assertTrue(checkAllDominatedHaveParent());
+        }
+    }
+
+    /**
+     * Test that re-homing a dominated solution's children in parallel makes exactly as many comparisons as
+     * re-homing them sequentially, so none are lost when the tasks count them at the same time.
+     */
+    @Test
+    public void testParallelRehomeComparisons() throws ReflectiveOperationException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (GuardianAssignment[] combination : combinations) {
+                ParetoDominanceCounter parallelCounter = new ParetoDominanceCounter();
+                ParetoDominanceCounter sequentialCounter = new ParetoDominanceCounter();
+                GuardianArchive parallel = new GuardianArchive(numObjectives, parallelCounter, DuplicateMode.ALLOW_DUPLICATES, new ManhattanDistance(), combination);
+                GuardianArchive sequential = new GuardianArchive(numObjectives, sequentialCounter, DuplicateMode.ALLOW_DUPLICATES, new ManhattanDistance(), combination);
+                parallel.setParallelRehomeThreshold(0);
+                parallel.setScanPool(pool);
+                sequential.setParallelRehomeThreshold(Integer.MAX_VALUE);
+
+                // the hub's children are non dominating, so each searches every sibling for a guardian
+                Random random = new Random(11);
+                List<double[]> objectives = new ArrayList<>();
+                objectives.add(new double[]{0.001, 0.001});
+                for (int i = 0; i < numSolutions / 10; i++) {
+                    double x = random.nextDouble();
+                    objectives.add(new double[]{0.01 + x, 1.01 - x});
+                }
+                objectives.add(new double[]{0, 0}); // the hub's guardian, so it is dominated when edited
+
+                List<GuardianSolution> parallelSolutions = new ArrayList<>();
+                List<GuardianSolution> sequentialSolutions = new ArrayList<>();
+                for (double[] vector : objectives) {
+                    parallelSolutions.add(new GuardianSolution(vector));
+                    sequentialSolutions.add(new GuardianSolution(vector));
+                    parallel.add(parallelSolutions.get(parallelSolutions.size() - 1));
+                    sequential.add(sequentialSolutions.get(sequentialSolutions.size() - 1));
+                }
+                parallelCounter.resetCount();
+                sequentialCounter.resetCount();
+                for (double[] edit : new double[][]{{0.002, 0.002}, {0.5, 0.5}, {0.9, 0.1}}) {
+                    parallel.editObjectives(parallelSolutions.get(0), edit);
+                    sequential.editObjectives(sequentialSolutions.get(0), edit);
+                }
+
+                assertSameTrees(sequential, sequentialSolutions, parallel, parallelSolutions);
+                assertEquals(sequentialCounter.getCounter(), parallelCounter.getCounter());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Asserts that two archives built from the same sequence of operations have the same Pareto set order and
+     * the same guardian of each solution.
+     */
+    private void assertSameTrees(GuardianArchive expected, List<GuardianSolution> expectedSolutions,
+                                 GuardianArchive actual, List<GuardianSolution> actualSolutions) throws ReflectiveOperationException {
+        Method getParent = GuardianSolution.class.getDeclaredMethod("getParent");
+        getParent.setAccessible(true);
+
+        assertEquals(expected.paretoSize(), actual.paretoSize());
+        for (int i = 0; i < expected.paretoSize(); i++) {
+            assertSame(actualSolutions.get(expectedSolutions.indexOf(expected.paretoSet().get(i))), actual.paretoSet().get(i));
+        }
+        for (int i = 0; i < expectedSolutions.size(); i++) {
+            Object parent = getParent.invoke(expectedSolutions.get(i));
+            Object actualParent = getParent.invoke(actualSolutions.get(i));
+            assertEquals(parent == null ? -1 : expectedSolutions.indexOf(parent), actualParent == null ? -1 : actualSolutions.indexOf(actualParent));
+        }
+    }
+
+    /**
+     * Generates objectives close to the line x + y = 1, so most solutions are non-dominated.
+     */
+    private double[] nearlyNonDominated(Random random) {
+        double x = random.nextDouble();
+        return new double[]{x, 1 - x + random.nextDouble() * 0.0001};
+    }
+
     /**
      * Test that the size of the archive is accurate.
      */
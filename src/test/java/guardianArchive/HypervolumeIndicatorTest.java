@@ -0,0 +1,126 @@
+package guardianArchive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projectimplementation.guardianArchive.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link HypervolumeIndicator} maintained by a {@link DynamicArchive}.
+ */
+public class HypervolumeIndicatorTest {
+    private static final double EPS = 1e-6;
+    private static final int numSolutions = 2000;
+
+    private Random random;
+
+    /**
+     * Constructs any shared objects used by this class.
+     */
+    @BeforeEach
+    public void setUp() {
+        random = new Random(1);
+    }
+
+    /**
+     * Removes references to shared objects.
+     */
+    @AfterEach
+    public void tearDown() {
+        random = null;
+    }
+
+    /**
+     * Tests the hypervolume of small fronts against values calculated by hand.
+     */
+    @Test
+    public void testKnownValues() {
+        DynamicArchive<GuardianSolution> population = new GuardianArchive(2);
+        population.setReferencePoint(new double[]{4, 4});
+        assertEquals(0.0, population.hypervolume(), EPS);
+
+        population.add(new GuardianSolution(new double[]{1, 3}));
+        population.add(new GuardianSolution(new double[]{2, 2}));
+        population.add(new GuardianSolution(new double[]{3, 1}));
+        assertEquals(6.0, population.hypervolume(), EPS);
+
+        // dominated and outside the reference point, so neither changes the hypervolume
+        population.add(new GuardianSolution(new double[]{3, 3}));
+        population.add(new GuardianSolution(new double[]{5, 0}));
+        assertEquals(6.0, population.hypervolume(), EPS);
+
+        GuardianSolution dominating = new GuardianSolution(new double[]{1, 1});
+        population.add(dominating);
+        assertEquals(9.0, population.hypervolume(), EPS);
+
+        population.editObjectives(dominating, new double[]{3.5, 3.5});
+        assertEquals(6.0, population.hypervolume(), EPS);
+
+        population = new GuardianArchive(3);
+        population.setReferencePoint(new double[]{2, 2, 2});
+        population.add(new GuardianSolution(new double[]{0, 1, 1}));
+        population.add(new GuardianSolution(new double[]{1, 0, 1}));
+        population.add(new GuardianSolution(new double[]{1, 1, 0}));
+        assertEquals(4.0, population.hypervolume(), EPS);
+    }
+
+    /**
+     * Tests that the incrementally maintained hypervolume agrees with one calculated from scratch
+     * while solutions are added and edited.
+     */
+    @Test
+    public void testIncremental() {
+        for (int objectives = 2; objectives <= 4; objectives++) {
+            incremental(new GuardianArchive(objectives), objectives);
+            incremental(new ListArchive(objectives), objectives);
+        }
+    }
+
+    private void incremental(DynamicArchive<GuardianSolution> population, int objectives) {
+        double[] referencePoint = new double[objectives];
+        Arrays.fill(referencePoint, 1.0);
+        population.setReferencePoint(referencePoint);
+
+        int solutions = objectives > 3 ? numSolutions / 10 : numSolutions;
+        List<GuardianSolution> added = new ArrayList<>();
+        for (int i = 0; i < solutions; i++) {
+            GuardianSolution solution = new GuardianSolution(randomObjectives(objectives));
+            population.add(solution);
+            added.add(solution);
+
+            GuardianSolution edited = added.get(random.nextInt(added.size()));
+            population.editObjectives(edited, randomObjectives(objectives));
+
+            if (i % 50 == 0) {
+                assertEquals(fromScratch(population, referencePoint), population.hypervolume(), EPS);
+            }
+        }
+        assertEquals(fromScratch(population, referencePoint), population.hypervolume(), EPS);
+
+        population.clear();
+        assertEquals(0.0, population.hypervolume(), EPS);
+    }
+
+    private double fromScratch(DynamicArchive<GuardianSolution> population, double[] referencePoint) {
+        HypervolumeIndicator indicator = new HypervolumeIndicator(referencePoint);
+        for (GuardianSolution solution : population.paretoSet()) {
+            indicator.update(solution, true);
+        }
+        return indicator.getValue();
+    }
+
+    private double[] randomObjectives(int objectives) {
+        double[] values = new double[objectives];
+        for (int i = 0; i < objectives; i++) {
+            values[i] = random.nextDouble() * 1.2;
+        }
+        return values;
+    }
+}
@@ -762,6 +762,117 @@ public class ListArchiveTest {
         assertTrue(population.isEmpty());
     }
 
+    /**
+     * Test that the ideal and nadir points match those of the Pareto set as solutions are added and edited.
+     */
+    @Test
+    public void testIdealAndNadirPoints() {
+        population = new ListArchive(numObjectives);
+        List<GuardianSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < numSolutions / 10; i++) {
+            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            population.add(solution);
+            solutions.add(solution);
+
+            GuardianSolution edited = solutions.get(ThreadLocalRandom.current().nextInt(solutions.size()));
+            population.editObjectives(edited, ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+
+            double[] ideal = new double[numObjectives];
+            double[] nadir = new double[numObjectives];
+            Arrays.fill(ideal, Double.POSITIVE_INFINITY);
+            Arrays.fill(nadir, Double.NEGATIVE_INFINITY);
+            for (GuardianSolution pareto : population.paretoSet()) {
+                for (int j = 0; j < numObjectives; j++) {
+                    ideal[j] = Math.min(ideal[j], pareto.getObjective(j));
+                    nadir[j] = Math.max(nadir[j], pareto.getObjective(j));
+                }
+            }
+            assertArrayEquals(ideal, population.getIdealPoint(), EPS);
+            assertArrayEquals(nadir, population.getNadirPoint(), EPS);
+        }
+    }
+
+    /**
+     * Test that the changes reported to a Pareto change listener reproduce the Pareto set.
+     */
+    @Test
+    public void testParetoChangeListener() {
+        population = new ListArchive(numObjectives);
+        Set<GuardianSolution> front = Collections.newSetFromMap(new IdentityHashMap<>());
+        population.addParetoChangeListener((entered, left) -> {
+            assertFalse(entered.isEmpty() && left.isEmpty());
+            for (GuardianSolution solution : left) {
+                assertTrue(front.remove(solution));
+            }
+            for (GuardianSolution solution : entered) {
+                assertTrue(front.add(solution));
+            }
+        });
+
+        List<GuardianSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < numSolutions / 10; i++) {
+            GuardianSolution solution = new GuardianSolution(ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            population.add(solution);
+            solutions.add(solution);
+            assertEquals(population.paretoSize(), front.size());
+            assertTrue(front.containsAll(population.paretoSet()));
+
+            GuardianSolution edited = solutions.get(ThreadLocalRandom.current().nextInt(solutions.size()));
+            population.editObjectives(edited, ThreadLocalRandom.current().doubles().limit(numObjectives).toArray());
+            assertEquals(population.paretoSize(), front.size());
+            assertTrue(front.containsAll(population.paretoSet()));
+        }
+    }
+
+    /**
+     * Test that random members are drawn from the whole population and random Pareto members from the Pareto set.
+     */
+    @Test
+    public void testRandomMember() {
+        Random random = new Random(1);
+        Set<GuardianSolution> sampled = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<GuardianSolution> sampledPareto = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 1000; i++) {
+            GuardianSolution member = population.randomMember(random);
+            GuardianSolution paretoMember = population.randomParetoMember(random);
+            assertTrue(population.contains(member));
+            assertTrue(population.pareto(paretoMember));
+            sampled.add(member);
+            sampledPareto.add(paretoMember);
+        }
+        assertEquals(population.size(), sampled.size());
+        assertEquals(population.paretoSize(), sampledPareto.size());
+
+        population.clear();
+        assertThrows(NoSuchElementException.class, () -> population.randomMember(random));
+        assertThrows(NoSuchElementException.class, () -> population.randomParetoMember(random));
+    }
+
+    /**
+     * Test that iterating, streaming and visiting the Pareto set cover the same solutions as the materialized lists.
+     */
+    @Test
+    public void testStream() {
+        population = new ListArchive(numObjectives);
+        populateRandom(population);
+        editObjectivesChanged(population);
+
+        Set<GuardianSolution> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(population.getPopulation());
+
+        Set<GuardianSolution> iterated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GuardianSolution solution : population) {
+            iterated.add(solution);
+        }
+        assertEquals(all, iterated);
+        assertEquals(population.size(), population.stream().count());
+        assertEquals(all, population.parallelStream().collect(() -> Collections.newSetFromMap(new IdentityHashMap<>()), Set::add, Set::addAll));
+
+        List<GuardianSolution> pareto = new ArrayList<>();
+        population.forEachPareto(pareto::add);
+        assertEquals(population.paretoSet(), pareto);
+    }
+
     /**
      * Test that the size of the archive is accurate.
      */
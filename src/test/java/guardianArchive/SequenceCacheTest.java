@@ -0,0 +1,149 @@
+package guardianArchive;
+
+import Jama.Matrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.AnalyticalDistribution;
+import projectimplementation.empiralAnalysis.AnalyticalSolution;
+import projectimplementation.empiralAnalysis.SequenceCache;
+import projectimplementation.empiralAnalysis.VectorSequence;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SequenceCacheTest {
+    private static final int DOMINATED = 4900;
+    private static final int NON_DOMINATED = 100;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sequences");
+    }
+
+    /**
+     * Remove the stored sequences where possible, as some platforms cannot delete a file while it is still mapped.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        directory.toFile().delete();
+    }
+
+    /**
+     * Test that a sequence replayed from the cache, by this cache or by another one reading the same directory,
+     * is the same as the generated sequence, and that the distribution draws the same samples afterwards.
+     */
+    @Test
+    public void testReplayMatchesGenerated() {
+        for (int d : new int[]{2, 5}) {
+            AnalyticalDistribution generated = new AnalyticalDistribution(d, 3);
+            AnalyticalDistribution stored = new AnalyticalDistribution(d, 3);
+            AnalyticalDistribution replayed = new AnalyticalDistribution(d, 3);
+
+            VectorSequence expected = generated.streamSequence(DOMINATED, NON_DOMINATED, 1.0);
+            VectorSequence first = new SequenceCache(directory).open(stored, DOMINATED, NON_DOMINATED, 1.0);
+            VectorSequence second = new SequenceCache(directory).open(replayed, DOMINATED, NON_DOMINATED, 1.0);
+            assertEquals(expected.length(), first.length());
+            assertEquals(expected.length(), second.length());
+
+            while (expected.hasNext()) {
+                AnalyticalSolution vector = expected.next();
+                for (AnalyticalSolution actual : new AnalyticalSolution[]{first.next(), second.next()}) {
+                    assertEquals(vector.getMean(), actual.getMean());
+                    assertArrayEquals(vector.getObjectives(), actual.getObjectives());
+                }
+            }
+            assertFalse(first.hasNext());
+            assertFalse(second.hasNext());
+
+            double[] means = new double[d];
+            double[] expectedSample = new double[d];
+            double[] actualSample = new double[d];
+            generated.sample(means, expectedSample);
+            replayed.sample(means, actualSample);
+            assertArrayEquals(expectedSample, actualSample);
+        }
+    }
+
+    /**
+     * Test that each replay creates its own solutions, so editing one replay does not affect another.
+     */
+    @Test
+    public void testReplaysAreIndependent() {
+        SequenceCache cache = new SequenceCache(directory);
+        VectorSequence first = cache.open(new AnalyticalDistribution(2, 5), DOMINATED, NON_DOMINATED, 1.0);
+        VectorSequence second = cache.open(new AnalyticalDistribution(2, 5), DOMINATED, NON_DOMINATED, 1.0);
+
+        AnalyticalSolution edited = first.next();
+        AnalyticalSolution untouched = second.next();
+        assertNotSame(edited, untouched);
+        double[] objectives = untouched.getObjectives();
+        edited.addSample(new double[]{100, 100});
+        edited.setObjectives(edited.getSample());
+        assertArrayEquals(objectives, untouched.getObjectives());
+        assertArrayEquals(objectives, cache.open(new AnalyticalDistribution(2, 5), DOMINATED, NON_DOMINATED, 1.0).next().getObjectives());
+    }
+
+    /**
+     * Test that a sequence is only stored once for each seed, and is not stored for a distribution whose covariance
+     * does not identify its sequences.
+     */
+    @Test
+    public void testStoredSequences() throws IOException {
+        SequenceCache cache = new SequenceCache(directory);
+        cache.open(new AnalyticalDistribution(2, 1), DOMINATED, NON_DOMINATED, 1.0);
+        cache.open(new AnalyticalDistribution(2, 1), DOMINATED, NON_DOMINATED, 1.0);
+        assertEquals(1, countFiles());
+
+        AnalyticalDistribution distribution = new AnalyticalDistribution(2, 1);
+        cache.open(distribution, DOMINATED, NON_DOMINATED, 1.0);
+        cache.open(distribution, DOMINATED, NON_DOMINATED, 1.0);
+        cache.open(new AnalyticalDistribution(2, 2), DOMINATED, NON_DOMINATED, 1.0);
+        assertEquals(3, countFiles());
+
+        VectorSequence uncached = cache.open(new AnalyticalDistribution(Matrix.identity(2, 2), 1), DOMINATED, NON_DOMINATED, 1.0);
+        assertEquals(DOMINATED + NON_DOMINATED, uncached.length());
+        assertEquals(3, countFiles());
+    }
+
+    /**
+     * Test that a stored sequence whose header records another generator version is refused rather than replayed.
+     */
+    @Test
+    public void testGeneratorVersionChecked() throws IOException {
+        new SequenceCache(directory).open(new AnalyticalDistribution(2, 4), DOMINATED, NON_DOMINATED, 1.0);
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile stored = new RandomAccessFile(file.toFile(), "rw")) {
+            stored.seek(4 * Integer.BYTES); // the generator version follows the magic, version, dimensions and length
+            int version = stored.readInt();
+            stored.seek(4 * Integer.BYTES);
+            stored.writeInt(version + 1);
+        }
+        assertThrows(UncheckedIOException.class,
+            () -> new SequenceCache(directory).open(new AnalyticalDistribution(2, 4), DOMINATED, NON_DOMINATED, 1.0));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
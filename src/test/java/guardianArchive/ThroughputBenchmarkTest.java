@@ -0,0 +1,130 @@
+package guardianArchive;
+
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.ThroughputBenchmark;
+import projectimplementation.guardianArchive.ConcurrentGuardianArchive;
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThroughputBenchmarkTest {
+
+    /**
+     * Test that a run which does not finish its workload reports each full interval and then the partial last one,
+     * with the operations of every interval adding up to the members reported.
+     */
+    @Test
+    public void testIntervals() throws InterruptedException {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(config("seconds=0.5", "interval=0.2",
+            "dominated=9990000", "nonDominated=10000", "seed=1"));
+        List<ThroughputBenchmark.Sample> reported = new ArrayList<>();
+        List<ThroughputBenchmark.Sample> samples = benchmark.run(reported::add);
+
+        assertEquals(samples, reported);
+        assertEquals(3, samples.size());
+        long adds = 0;
+        long edits = 0;
+        double previous = 0;
+        for (ThroughputBenchmark.Sample sample : samples) {
+            adds += sample.getAdds();
+            edits += sample.getEdits();
+            assertEquals(adds, sample.getMembers());
+            assertTrue(sample.getSeconds() > previous);
+            previous = sample.getSeconds();
+        }
+        assertTrue(adds > 0);
+        assertTrue(edits == adds || edits == adds - 1); // the default workload edits once after each add
+
+        double last = samples.get(2).getSeconds() - samples.get(1).getSeconds();
+        assertTrue(samples.get(2).getSeconds() >= 0.5);
+        assertTrue(last < 0.2);
+    }
+
+    /**
+     * Test that a run stops as soon as its threads have applied every operation of their workloads, reporting
+     * them in a single interval.
+     */
+    @Test
+    public void testFinishesEarly() throws InterruptedException {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(config("archive=concurrent", "threads=2",
+            "seconds=60", "interval=30", "dominated=500", "nonDominated=50", "adds=1", "edits=2",
+            "target=pareto", "edit=sample", "seed=1"));
+        List<ThroughputBenchmark.Sample> samples = benchmark.run(sample -> { });
+
+        assertEquals(1, samples.size());
+        ThroughputBenchmark.Sample sample = samples.get(0);
+        assertTrue(sample.getSeconds() < 30);
+        assertEquals(550, sample.getMembers());
+        assertEquals(550, sample.getAdds());
+        assertEquals(2 * 550, sample.getEdits());
+    }
+
+    /**
+     * Test that vectors which do not divide evenly between the threads are all added, the first threads taking the
+     * remainder.
+     */
+    @Test
+    public void testUnevenShares() throws InterruptedException {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(config("archive=concurrent", "threads=3",
+            "seconds=60", "interval=30", "dominated=10", "nonDominated=2", "edits=0", "seed=1"));
+        List<ThroughputBenchmark.Sample> samples = benchmark.run(sample -> { });
+
+        assertEquals(12, samples.get(samples.size() - 1).getMembers());
+    }
+
+    /**
+     * Test that a failure in one thread stops the run and is rethrown once every thread has finished.
+     */
+    @Test
+    public void testFailureRethrown() {
+        IllegalArgumentException rejected = new IllegalArgumentException("rejected");
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(config("archive=concurrent", "threads=2",
+            "seconds=60", "interval=30", "dominated=9990000", "nonDominated=10000", "seed=1")) {
+            @Override
+            protected DynamicArchive<GuardianSolution> createArchive() {
+                return new ConcurrentGuardianArchive(2) {
+                    @Override
+                    public boolean add(GuardianSolution solution) {
+                        if (size() >= 100) {
+                            throw rejected;
+                        }
+                        return super.add(solution);
+                    }
+                };
+            }
+        };
+
+        IllegalStateException failed = assertTimeoutPreemptively(Duration.ofSeconds(30),
+            () -> assertThrows(IllegalStateException.class, () -> benchmark.run(sample -> { })));
+        assertSame(rejected, failed.getCause());
+    }
+
+    @Test
+    public void testInvalidConfigurations() {
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputBenchmark(config("threads=2")));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputBenchmark(config("seconds=0")));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputBenchmark(config("archive=tree")));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputBenchmark(config("dominated=0", "nonDominated=0")));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputBenchmark(config("archive=concurrent", "threads=3",
+            "dominated=1", "nonDominated=1")));
+    }
+
+    private static Properties config(String... settings) {
+        Properties config = new Properties();
+        for (String setting : settings) {
+            int separator = setting.indexOf('=');
+            config.setProperty(setting.substring(0, separator), setting.substring(separator + 1));
+        }
+        return config;
+    }
+}
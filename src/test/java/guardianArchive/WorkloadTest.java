@@ -0,0 +1,188 @@
+package guardianArchive;
+
+import org.junit.jupiter.api.Test;
+import projectimplementation.empiralAnalysis.AnalyticalDistribution;
+import projectimplementation.empiralAnalysis.AnalyticalSolution;
+import projectimplementation.empiralAnalysis.Experiment;
+import projectimplementation.empiralAnalysis.VectorSequence;
+import projectimplementation.empiralAnalysis.Workload;
+import projectimplementation.guardianArchive.DynamicArchive;
+import projectimplementation.guardianArchive.GuardianArchive;
+import projectimplementation.guardianArchive.GuardianSolution;
+import projectimplementation.guardianArchive.ListArchive;
+import projectimplementation.guardianArchive.ParetoDominanceCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkloadTest {
+    private static final int NUM_OBJECTIVES = 2;
+    private static final int DOMINATED = 950;
+    private static final int NON_DOMINATED = 50;
+
+    /**
+     * Test that the default workload alternates adds and edits until every vector has been added and edited after.
+     */
+    @Test
+    public void testAlternatesByDefault() {
+        Workload workload = Workload.builder().build();
+        Workload.Driver driver = driver(workload, new GuardianArchive(NUM_OBJECTIVES));
+        int operations = 0;
+        while (driver.hasNext()) {
+            driver.step();
+            assertEquals(operations % 2 == 0 ? Workload.Operation.ADD : Workload.Operation.EDIT, driver.lastOperation());
+            operations++;
+        }
+        assertEquals(workload.operations(DOMINATED + NON_DOMINATED), operations);
+        assertEquals(2 * (DOMINATED + NON_DOMINATED), operations);
+        assertThrows(NoSuchElementException.class, driver::step);
+    }
+
+    /**
+     * Test that edits are spread evenly between the adds in the proportion of the mix.
+     */
+    @Test
+    public void testMix() {
+        Workload workload = Workload.builder().mix(30, 70).target(Workload.Target.PARETO_MEMBER).noise(0.01).build();
+        GuardianArchive archive = new GuardianArchive(NUM_OBJECTIVES);
+        Workload.Driver driver = driver(workload, archive);
+        while (driver.hasNext()) {
+            driver.step();
+            int due = (int) Math.floor(driver.getAdds() * 7 / 3.0);
+            assertTrue(driver.getEdits() <= due);
+            assertTrue(driver.getEdits() >= due - 3);
+        }
+        assertEquals(DOMINATED + NON_DOMINATED, driver.getAdds());
+        assertEquals((DOMINATED + NON_DOMINATED) * 7 / 3, driver.getEdits());
+        assertEquals(workload.operations(DOMINATED + NON_DOMINATED), driver.getAdds() + driver.getEdits());
+        assertEquals(DOMINATED + NON_DOMINATED, archive.size());
+    }
+
+    /**
+     * Test that a burst makes its adds back to back before the edits due for them.
+     */
+    @Test
+    public void testBurst() {
+        Workload workload = Workload.builder().mix(1, 2).burst(10).edit(Workload.Edit.SAMPLE).build();
+        Workload.Driver driver = driver(workload, new ListArchive(NUM_OBJECTIVES));
+        for (int burst = 0; burst < 3; burst++) {
+            for (int i = 0; i < 10; i++) {
+                driver.step();
+                assertEquals(Workload.Operation.ADD, driver.lastOperation());
+            }
+            for (int i = 0; i < 20; i++) {
+                driver.step();
+                assertEquals(Workload.Operation.EDIT, driver.lastOperation());
+            }
+        }
+    }
+
+    /**
+     * Test that a workload without edits only adds.
+     */
+    @Test
+    public void testAddsOnly() {
+        Workload.Driver driver = driver(Workload.builder().mix(1, 0).build(), new GuardianArchive(NUM_OBJECTIVES));
+        while (driver.hasNext()) {
+            driver.step();
+            assertEquals(Workload.Operation.ADD, driver.lastOperation());
+        }
+        assertEquals(0, driver.getEdits());
+        assertFalse(driver.hasNext());
+    }
+
+    /**
+     * Test that the first simulation only adds and edits the vectors before the last, which is left out.
+     */
+    @Test
+    public void testSkipLast() {
+        Workload workload = Workload.builder().skipLast(1).build();
+        GuardianArchive archive = new GuardianArchive(NUM_OBJECTIVES);
+        Workload.Driver driver = driver(workload, archive);
+        while (driver.hasNext()) {
+            driver.step();
+        }
+        assertEquals(DOMINATED + NON_DOMINATED - 1, archive.size());
+        assertEquals(DOMINATED + NON_DOMINATED - 1, driver.getEdits());
+        assertEquals(workload.operations(DOMINATED + NON_DOMINATED), driver.getAdds() + driver.getEdits());
+        assertThrows(NoSuchElementException.class, driver::step);
+    }
+
+    /**
+     * Test that the simulations of an experiment make the same domination comparisons, operation by operation, as
+     * the loops they replaced.
+     */
+    @Test
+    public void testMatchesOriginalSimulations() {
+        List<Workload> workloads = Experiment.getWorkloads();
+        assertEquals(4, workloads.size());
+        for (int simulation = 0; simulation < workloads.size(); simulation++) {
+            ParetoDominanceCounter counter = new ParetoDominanceCounter();
+            Workload.Driver driver = driver(workloads.get(simulation), new GuardianArchive(NUM_OBJECTIVES, counter));
+            List<Long> comparisons = new ArrayList<>();
+            while (driver.hasNext()) {
+                driver.step();
+                comparisons.add(counter.getCounter());
+            }
+            assertEquals(originalSimulation(simulation), comparisons, "simulation " + (simulation + 1));
+        }
+    }
+
+    /**
+     * Runs one of the loops the simulations were written as before they were workloads, returning the number of
+     * comparisons made after each operation. The first simulation stopped one vector short of the sequence.
+     */
+    private static List<Long> originalSimulation(int simulation) {
+        ParetoDominanceCounter counter = new ParetoDominanceCounter();
+        GuardianArchive archive = new GuardianArchive(NUM_OBJECTIVES, counter);
+        AnalyticalDistribution distribution = new AnalyticalDistribution(NUM_OBJECTIVES, 1);
+        VectorSequence sequence = distribution.streamSequence(DOMINATED, NON_DOMINATED, 1.0);
+        Random random = new Random(1);
+        double[] sample = new double[NUM_OBJECTIVES];
+        List<AnalyticalSolution> added = new ArrayList<>();
+        List<Long> comparisons = new ArrayList<>();
+        int length = simulation == 0 ? sequence.length() - 1 : sequence.length();
+        for (int i = 0; i < length; i++) {
+            AnalyticalSolution next = sequence.next();
+            added.add(next);
+            archive.add(next);
+            comparisons.add(counter.getCounter());
+
+            AnalyticalSolution vector = simulation % 2 == 0
+                ? added.get(random.nextInt(i + 1))
+                : (AnalyticalSolution) archive.randomParetoMember(random);
+            if (simulation < 2) {
+                vector.setSampleToMean();
+            } else {
+                distribution.sample(vector.getMean(), sample);
+                vector.addSample(sample);
+            }
+            vector.setObjectives(vector.getSample());
+            comparisons.add(counter.getCounter());
+        }
+        return comparisons;
+    }
+
+    @Test
+    public void testInvalidWorkloads() {
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().mix(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().mix(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().burst(0));
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().noise(-1));
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().edit(Workload.Edit.NOISE));
+        assertThrows(IllegalArgumentException.class, () -> Workload.builder().skipLast(-1));
+    }
+
+    private static Workload.Driver driver(Workload workload, DynamicArchive<GuardianSolution> archive) {
+        AnalyticalDistribution distribution = new AnalyticalDistribution(NUM_OBJECTIVES, 1);
+        VectorSequence sequence = distribution.streamSequence(DOMINATED, NON_DOMINATED, 1.0);
+        return workload.driver(sequence, archive, new Random(1), distribution, System::nanoTime);
+    }
+}